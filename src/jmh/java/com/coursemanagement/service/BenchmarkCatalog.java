@@ -0,0 +1,89 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.OnlineCourseApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Boots the application against a throwaway PostgreSQL and seeds a generated catalog with the
+ * in-memory search index enabled. Each JMH fork creates its own.
+ */
+final class BenchmarkCatalog implements AutoCloseable {
+    private static final int COURSES = 5000;
+    private static final String[] WORDS = {
+            "java", "spring", "boot", "python", "data", "science", "machine", "learning", "web",
+            "development", "advanced", "introduction", "cloud", "security", "design", "patterns",
+            "database", "testing", "kotlin", "react", "architecture", "distributed", "systems", "algorithms"
+    };
+
+    private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    private final ConfigurableApplicationContext context;
+    private final List<Long> courseIds;
+
+    BenchmarkCatalog() {
+        postgres.start();
+        // Command-line arguments take precedence over the environment placeholders in application.yaml
+        context = new SpringApplicationBuilder(OnlineCourseApplication.class).run(
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                // Never contacted; the benchmarks call services directly
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=http://localhost:8180/realms/course-management",
+                "--spring.security.oauth2.client.registration.keycloak.client-id=benchmark",
+                "--spring.security.oauth2.client.registration.keycloak.client-secret=benchmark",
+                "--server.port=0",
+                "--course.search.in-memory.enabled=true");
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long instructorId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.users (keycloak_id, email, first_name, last_name, role)
+                VALUES ('instructor', 'instructor@example.com', 'Ada', 'Lovelace', 'INSTRUCTOR')
+                RETURNING id
+                """, Long.class);
+        Long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO course_management.categories (name) VALUES ('Programming') RETURNING id", Long.class);
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            rows.add(new Object[]{sentence(random, 4), sentence(random, 30), instructorId, categoryId});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO course_management.courses
+                    (title, description, instructor_id, category_id, difficulty_level, duration_hours, is_published)
+                VALUES (?, ?, ?, ?, 'BEGINNER', 10, true)
+                """, rows);
+        jdbcTemplate.execute("ANALYZE course_management.courses");
+
+        courseIds = jdbcTemplate.queryForList("SELECT id FROM course_management.courses ORDER BY id", Long.class);
+        context.getBean(CategoryCatalog.class).refresh();
+        context.getBean(CourseSearchIndex.class).rebuild();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    List<Long> courseIds() {
+        return courseIds;
+    }
+
+    static String sentence(Random random, int words) {
+        return random.ints(words, 0, WORDS.length)
+                .mapToObj(i -> WORDS[i])
+                .collect(Collectors.joining(" "));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        postgres.stop();
+    }
+}
@@ -0,0 +1,75 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.dto.CourseSearchDto;
+import com.coursemanagement.mapper.CourseMapper;
+import com.coursemanagement.repository.CourseRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exact-mode search served by the in-memory index against the same request served by PostgreSQL
+ * full-text search, plus fuzzy mode, which always runs in PostgreSQL. Run with {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseSearchBenchmark {
+    @Param({"java", "spring boot", "data sci", "advanced design patterns", "cl"})
+    public String query;
+
+    private BenchmarkCatalog catalog;
+    private CourseService courseService;
+    private CourseRepository courseRepository;
+    private CourseMapper courseMapper;
+
+    @Setup
+    public void setUp() {
+        catalog = new BenchmarkCatalog();
+        courseService = catalog.bean(CourseService.class);
+        courseRepository = catalog.bean(CourseRepository.class);
+        courseMapper = catalog.bean(CourseMapper.class);
+
+        if (inMemoryIndex().getTotal() == 0 || postgresFullText().isEmpty()) {
+            throw new IllegalStateException("No search results for \"" + query + "\"");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public CourseSearchDto.SearchPageDto inMemoryIndex() {
+        return courseService.searchCourses(query, null, null, CourseSearchDto.Mode.EXACT, 0, 20);
+    }
+
+    // What CourseService.searchCourses runs for exact mode while the index is disabled
+    @Benchmark
+    public List<CourseSearchDto> postgresFullText() {
+        return courseRepository.searchCourses(CourseService.toPrefixTsQuery(query), null, null, 20, 0).stream()
+                .map(courseMapper::toSearchDto)
+                .toList();
+    }
+
+    @Benchmark
+    public CourseSearchDto.SearchPageDto postgresFuzzy() {
+        return courseService.searchCourses(query, null, null, CourseSearchDto.Mode.FUZZY, 0, 20);
+    }
+}
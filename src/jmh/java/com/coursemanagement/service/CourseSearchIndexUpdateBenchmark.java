@@ -0,0 +1,68 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.event.CourseChangedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long the in-memory search index takes to apply course events on a 5000 course catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseSearchIndexUpdateBenchmark {
+    private final Random random = new Random(7);
+
+    private BenchmarkCatalog catalog;
+    private CourseSearchIndex courseSearchIndex;
+    private JdbcTemplate jdbcTemplate;
+    private List<Long> courseIds;
+
+    @Setup
+    public void setUp() {
+        catalog = new BenchmarkCatalog();
+        courseSearchIndex = catalog.bean(CourseSearchIndex.class);
+        jdbcTemplate = catalog.bean(JdbcTemplate.class);
+        courseIds = catalog.courseIds();
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public void enrollmentEvent() {
+        courseSearchIndex.onCourseChanged(new CourseChangedEvent(randomCourseId(), CourseChangedEvent.Change.ENROLLMENTS));
+    }
+
+    // Includes the UPDATE, since the index reloads the changed course
+    @Benchmark
+    public void titleChange() {
+        Long courseId = randomCourseId();
+        jdbcTemplate.update("UPDATE course_management.courses SET title = ? WHERE id = ?",
+                BenchmarkCatalog.sentence(random, 4), courseId);
+        courseSearchIndex.onCourseChanged(new CourseChangedEvent(courseId, CourseChangedEvent.Change.UPDATED));
+    }
+
+    private Long randomCourseId() {
+        return courseIds.get(random.nextInt(courseIds.size()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.coursemanagement.config;
+
+import com.coursemanagement.service.InMemorySharedCacheStore;
+import com.coursemanagement.service.SharedCacheStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(SharedCacheStore.class)
+    @ConditionalOnProperty(name = "course.cache.content.l2.store", havingValue = "local")
+    public SharedCacheStore inMemorySharedCacheStore() {
+        return new InMemorySharedCacheStore();
+    }
+}
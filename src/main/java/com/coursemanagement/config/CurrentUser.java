@@ -0,0 +1,16 @@
+package com.coursemanagement.config;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+public record CurrentUser(
+        Long id,
+        String keycloakId,
+        String email,
+        String role
+) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return keycloakId;
+    }
+}
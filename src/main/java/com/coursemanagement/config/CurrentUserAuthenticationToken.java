@@ -0,0 +1,27 @@
+package com.coursemanagement.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+
+import java.util.Collection;
+import java.util.Map;
+
+public class CurrentUserAuthenticationToken extends AbstractOAuth2TokenAuthenticationToken<Jwt> {
+
+    public CurrentUserAuthenticationToken(Jwt jwt, CurrentUser currentUser,
+                                          Collection<? extends GrantedAuthority> authorities) {
+        super(jwt, currentUser, jwt, authorities);
+        setAuthenticated(true);
+    }
+
+    @Override
+    public CurrentUser getPrincipal() {
+        return (CurrentUser) super.getPrincipal();
+    }
+
+    @Override
+    public Map<String, Object> getTokenAttributes() {
+        return getToken().getClaims();
+    }
+}
@@ -1,37 +1,70 @@
 package com.coursemanagement.config;
 
 import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkException;
 import com.auth0.jwk.JwkProvider;
+import com.auth0.jwk.JwkProviderBuilder;
 import com.auth0.jwk.UrlJwkProvider;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class JwtTokenExtractor {
     private final String issuer;
-    private final JwkProvider jwkProvider;
+    private final UrlJwkProvider jwkSource;
+    private final JwkProvider rateLimitedJwkProvider;
+    private final Map<String, Jwk> signingKeys = new ConcurrentHashMap<>();
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtTokenExtractor(
             @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
-            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${course.security.jwks.max-fetches-per-minute:10}") long maxFetchesPerMinute,
+            @Value("${course.security.token-cache.max-size:10000}") long tokenCacheSize,
+            @Value("${course.security.token-cache.ttl:5m}") Duration tokenCacheTtl
     ) throws MalformedURLException {
+        URL jwkSetUrl = new URL(jwkSetUri);
         this.issuer = issuerUri;
-        this.jwkProvider = new UrlJwkProvider(new URL(jwkSetUri));
+        this.jwkSource = new UrlJwkProvider(jwkSetUrl);
+        this.rateLimitedJwkProvider = new JwkProviderBuilder(jwkSetUrl)
+                .cached(false)
+                .rateLimited(maxFetchesPerMinute, 1, TimeUnit.MINUTES)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(new VerifiedTokenExpiry(tokenCacheTtl))
+                .build();
     }
 
     public record UserInfo(
@@ -43,10 +76,19 @@ public class JwtTokenExtractor {
     ) {
     }
 
+    private record VerifiedToken(UserInfo userInfo, Instant expiresAt) {
+    }
+
     public UserInfo extractUserInfo(String token) {
+        String tokenHash = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached.userInfo();
+        }
+
         try {
             DecodedJWT jwt = JWT.decode(token);
-            Jwk jwk = jwkProvider.get(jwt.getKeyId());
+            Jwk jwk = signingKey(jwt.getKeyId());
             Algorithm algorithm = Algorithm.RSA256((RSAPublicKey) jwk.getPublicKey(), null);
 
             jwt = JWT.require(algorithm)
@@ -55,16 +97,9 @@ public class JwtTokenExtractor {
                     .build()
                     .verify(token);
 
-            String keycloakId = jwt.getSubject();
-            String email = extractEmail(jwt);
-            String name = extractName(jwt);
-            Set<String> roles = extractRoles(jwt);
-            String role = determineHighestRole(roles);
-            Set<String> permissions = extractPermissions(jwt);
-
-            validateTokenInfo(keycloakId, email);
-
-            return new UserInfo(keycloakId, email, role, name, permissions);
+            UserInfo userInfo = toUserInfo(jwt);
+            cache(tokenHash, userInfo, jwt.getExpiresAtAsInstant());
+            return userInfo;
 
         } catch (JWTVerificationException exception) {
             log.error("JWT token verification failed", exception);
@@ -75,6 +110,104 @@ public class JwtTokenExtractor {
         }
     }
 
+    public UserInfo extractUserInfo(Jwt jwt) {
+        String tokenHash = hash(jwt.getTokenValue());
+        VerifiedToken cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached.userInfo();
+        }
+
+        // SecurityConfig's JwtDecoder has already verified the signature, issuer and expiry
+        try {
+            UserInfo userInfo = toUserInfo(JWT.decode(jwt.getTokenValue()));
+            cache(tokenHash, userInfo, jwt.getExpiresAt());
+            return userInfo;
+        } catch (JWTDecodeException exception) {
+            throw new SecurityException("Invalid JWT token", exception);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${course.security.jwks.refresh-interval-ms:900000}")
+    public void refreshSigningKeys() {
+        try {
+            Map<String, Jwk> keys = jwkSource.getAll().stream()
+                    .filter(jwk -> jwk.getId() != null)
+                    .collect(Collectors.toMap(Jwk::getId, Function.identity(), (first, second) -> first));
+            signingKeys.putAll(keys);
+            signingKeys.keySet().retainAll(keys.keySet());
+            log.debug("Refreshed {} JWKS signing keys", keys.size());
+        } catch (JwkException e) {
+            log.warn("Failed to refresh JWKS signing keys, keeping {} cached keys", signingKeys.size(), e);
+        }
+    }
+
+    private Jwk signingKey(String keyId) throws JwkException {
+        if (keyId == null) {
+            // Keycloak always sets a kid, and the key map cannot look up a null one
+            throw new JWTVerificationException("Token has no key id");
+        }
+
+        Jwk jwk = signingKeys.get(keyId);
+        if (jwk == null) {
+            // Unknown key id, most likely a rotation since the last refresh
+            jwk = rateLimitedJwkProvider.get(keyId);
+            signingKeys.put(keyId, jwk);
+        }
+        return jwk;
+    }
+
+    private void cache(String tokenHash, UserInfo userInfo, Instant expiresAt) {
+        if (expiresAt != null && expiresAt.isAfter(Instant.now())) {
+            verifiedTokens.put(tokenHash, new VerifiedToken(userInfo, expiresAt));
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class VerifiedTokenExpiry implements Expiry<String, VerifiedToken> {
+        private final long maxTtlNanos;
+
+        VerifiedTokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+            return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private UserInfo toUserInfo(DecodedJWT jwt) {
+        String keycloakId = jwt.getSubject();
+        String email = extractEmail(jwt);
+        String name = extractName(jwt);
+        Set<String> roles = extractRoles(jwt);
+        String role = determineHighestRole(roles);
+        Set<String> permissions = extractPermissions(jwt);
+
+        validateTokenInfo(keycloakId, email);
+
+        return new UserInfo(keycloakId, email, role, name, permissions);
+    }
+
     private String extractEmail(DecodedJWT jwt) {
         String email = jwt.getClaim("email").asString();
         if (email == null || email.isBlank()) {
@@ -108,7 +241,7 @@ public class JwtTokenExtractor {
         return new HashSet<>();
     }
 
-    private String determineHighestRole(Set<String> keycloakRoles) {
+    public static String determineHighestRole(Set<String> keycloakRoles) {
         if (keycloakRoles.stream().anyMatch(role -> role.toLowerCase().contains("admin"))) {
             return "ADMIN";
         } else if (keycloakRoles.stream().anyMatch(role -> role.toLowerCase().contains("instructor"))) {
@@ -0,0 +1,31 @@
+package com.coursemanagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class KeycloakClientConfig {
+
+    // One keep-alive connection pool shared by every call to Keycloak
+    @Bean
+    public RestClient keycloakRestClient(
+            RestClient.Builder builder,
+            @Value("${course.keycloak.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${course.keycloak.client.read-timeout:5s}") Duration readTimeout
+    ) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        return builder.requestFactory(requestFactory).build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.coursemanagement.config;
 
+import com.coursemanagement.service.UserService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,8 +14,9 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
 import org.springframework.security.web.SecurityFilterChain;
 
 import java.util.ArrayList;
@@ -24,6 +27,7 @@ import java.util.Map;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@RequiredArgsConstructor
 public class SecurityConfig {
 
     private static final String REALM_ACCESS_CLAIM = "realm_access";
@@ -31,9 +35,15 @@ public class SecurityConfig {
     private static final String SCOPE_CLAIM = "scope";
     private static final String DEFAULT_ROLE_PREFIX = "ROLE_";
 
+    private final JwtTokenExtractor jwtTokenExtractor;
+    private final UserService userService;
+
     @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
     private String jwkSetUri;
 
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -54,11 +64,14 @@ public class SecurityConfig {
 
     @Bean
     JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withJwkSetUri(this.jwkSetUri).build();
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withJwkSetUri(this.jwkSetUri).build();
+        // Decoded tokens share JwtTokenExtractor's verified-token cache, so they need the same issuer check
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(this.issuerUri));
+        return decoder;
     }
 
     @Bean
-    public JwtAuthenticationConverter oauth2jwtAuthenticationConverter() {
+    public Converter<Jwt, CurrentUserAuthenticationToken> oauth2jwtAuthenticationConverter() {
         Converter<Jwt, Collection<GrantedAuthority>> jwtGrantedAuthoritiesConverter = jwt -> {
             Collection<GrantedAuthority> authorities = new ArrayList<>();
 
@@ -80,8 +93,15 @@ public class SecurityConfig {
             return authorities;
         };
 
-        var jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
-        return jwtAuthenticationConverter;
+        // Resolve the local user once per request so services can work with ids instead of emails
+        return jwt -> {
+            CurrentUser currentUser;
+            try {
+                currentUser = userService.resolveCurrentUser(jwtTokenExtractor.extractUserInfo(jwt));
+            } catch (SecurityException e) {
+                throw new InvalidBearerTokenException(e.getMessage(), e);
+            }
+            return new CurrentUserAuthenticationToken(jwt, currentUser, jwtGrantedAuthoritiesConverter.convert(jwt));
+        };
     }
 }
@@ -1,5 +1,6 @@
 package com.coursemanagement.controller;
 
+import com.coursemanagement.config.HttpCachePolicy;
 import com.coursemanagement.dto.CategoryDto;
 import com.coursemanagement.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,6 +28,7 @@ import java.util.List;
 @Tag(name = "Category Management Controller", description = "APIs for managing categories")
 public class CategoryController {
     private final CategoryService categoryService;
+    private final HttpCachePolicy httpCachePolicy;
 
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping
@@ -55,13 +58,15 @@ public class CategoryController {
 
     @GetMapping("/{categoryId}")
     @Operation(summary = "Get a category", tags = {"Public"})
-    public ResponseEntity<CategoryDto> getCategory(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(categoryService.getCategory(categoryId));
+    public ResponseEntity<CategoryDto> getCategory(@PathVariable Long categoryId, WebRequest request) {
+        String etag = HttpCachePolicy.etag("category", categoryId, categoryService.getCategoryVersionTag(categoryId));
+        return httpCachePolicy.conditional(request, etag, () -> categoryService.getCategory(categoryId));
     }
 
     @GetMapping
     @Operation(summary = "Get all categories", tags = {"Public"})
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<CategoryDto>> getAllCategories(WebRequest request) {
+        String etag = HttpCachePolicy.etag("categories", categoryService.getCategoriesVersionTag());
+        return httpCachePolicy.conditional(request, etag, categoryService::getAllCategories);
     }
 }
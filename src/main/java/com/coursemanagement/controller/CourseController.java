@@ -1,28 +1,41 @@
 package com.coursemanagement.controller;
 
+import com.coursemanagement.config.CurrentUser;
+import com.coursemanagement.config.HttpCachePolicy;
+import com.coursemanagement.dto.CohortEnrollmentDto;
+import com.coursemanagement.dto.CourseAnalyticsDto;
+import com.coursemanagement.dto.CourseCatalogDto;
 import com.coursemanagement.dto.CourseDto;
+import com.coursemanagement.dto.CourseFilterDto;
+import com.coursemanagement.dto.CourseSearchDto;
 import com.coursemanagement.dto.CourseSimpleDto;
 import com.coursemanagement.entity.Course;
+import com.coursemanagement.service.BulkEnrollmentService;
+import com.coursemanagement.service.CourseAnalyticsService;
 import com.coursemanagement.service.CourseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -31,16 +44,18 @@ import java.util.List;
 @Tag(name = "Course Management Controller", description = "APIs for managing courses")
 public class CourseController {
     private final CourseService courseService;
+    private final BulkEnrollmentService bulkEnrollmentService;
+    private final CourseAnalyticsService courseAnalyticsService;
+    private final HttpCachePolicy httpCachePolicy;
 
     @PreAuthorize("hasRole('INSTRUCTOR')")
     @PostMapping
     @Operation(summary = "Create a course", tags = {"Instructor"})
     public ResponseEntity<CourseDto> createCourse(
             @Valid @RequestBody CourseDto.CreateCourseDto createCourseDto,
-            @AuthenticationPrincipal Jwt jwt) {
-        String instructorEmail = jwt.getClaimAsString("email");
+            @AuthenticationPrincipal CurrentUser currentUser) {
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(courseService.createCourse(createCourseDto, instructorEmail));
+                .body(courseService.createCourse(createCourseDto, currentUser.id()));
     }
 
     @PreAuthorize("hasRole('INSTRUCTOR') and @courseAccessValidator.isInstructor(#courseId, authentication)")
@@ -70,9 +85,8 @@ public class CourseController {
     @PreAuthorize("hasRole('INSTRUCTOR')")
     @GetMapping("/instructor")
     @Operation(summary = "Get created courses", tags = {"Instructor"})
-    public ResponseEntity<List<CourseDto>> getInstructorCourses(@AuthenticationPrincipal Jwt jwt) {
-        String instructorEmail = jwt.getClaimAsString("email");
-        return ResponseEntity.ok(courseService.getCoursesByInstructor(instructorEmail));
+    public ResponseEntity<List<CourseDto>> getInstructorCourses(@AuthenticationPrincipal CurrentUser currentUser) {
+        return ResponseEntity.ok(courseService.getCoursesByInstructor(currentUser.id()));
     }
 
     @PreAuthorize("hasRole('STUDENT')")
@@ -80,59 +94,109 @@ public class CourseController {
     @Operation(summary = "Enroll in a course", tags = {"Student"})
     public ResponseEntity<Void> enrollInCourse(
             @PathVariable Long courseId,
-            @AuthenticationPrincipal Jwt jwt) {
-        String studentEmail = jwt.getClaimAsString("email");
-        courseService.enrollInCourse(courseId, studentEmail);
+            @AuthenticationPrincipal CurrentUser currentUser) {
+        courseService.enrollInCourse(courseId, currentUser.id());
         return ResponseEntity.ok().build();
     }
 
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('INSTRUCTOR') and @courseAccessValidator.isInstructor(#courseId, authentication))")
+    @PostMapping("/{courseId}/enrollments")
+    @Operation(summary = "Enroll a cohort of students", tags = {"Instructor", "Admin"})
+    public ResponseEntity<CohortEnrollmentDto> enrollCohort(
+            @PathVariable Long courseId,
+            @Valid @RequestBody CohortEnrollmentDto.CreateCohortEnrollmentDto createCohortEnrollmentDto) {
+        return ResponseEntity.ok(courseService.enrollCohort(courseId, createCohortEnrollmentDto.getEmails()));
+    }
+
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('INSTRUCTOR') and @courseAccessValidator.isInstructor(#courseId, authentication))")
+    @PostMapping(value = "/{courseId}/enrollments/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Import enrollments from a CSV or NDJSON stream of emails", tags = {"Instructor", "Admin"})
+    public ResponseEntity<CohortEnrollmentDto.ImportReportDto> importEnrollments(
+            @PathVariable Long courseId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(bulkEnrollmentService.importEnrollments(
+                courseId, body, MediaType.parseMediaType(contentType)));
+    }
+
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('INSTRUCTOR') and @courseAccessValidator.isInstructor(#courseId, authentication))")
+    @GetMapping("/{courseId}/analytics")
+    @Operation(summary = "Get lesson completion funnel and learner activity", tags = {"Instructor", "Admin"})
+    public ResponseEntity<CourseAnalyticsDto> getCourseAnalytics(@PathVariable Long courseId) {
+        return ResponseEntity.ok(courseAnalyticsService.getCourseAnalytics(courseId));
+    }
+
     @PreAuthorize("hasRole('STUDENT')")
     @DeleteMapping("/{courseId}/enroll")
     @Operation(summary = "Unenroll from a course", tags = {"Student"})
     public ResponseEntity<Void> unenrollFromCourse(
             @PathVariable Long courseId,
-            @AuthenticationPrincipal Jwt jwt) {
-        String studentEmail = jwt.getClaimAsString("email");
-        courseService.unEnrollFromCourse(courseId, studentEmail);
+            @AuthenticationPrincipal CurrentUser currentUser) {
+        courseService.unEnrollFromCourse(courseId, currentUser.id());
         return ResponseEntity.noContent().build();
     }
 
     @PreAuthorize("hasRole('STUDENT')")
     @GetMapping("/student")
     @Operation(summary = "Get enrolled courses", tags = {"Student"})
-    public ResponseEntity<List<CourseSimpleDto>> getEnrolledCourses(@AuthenticationPrincipal Jwt jwt) {
-        String studentEmail = jwt.getClaimAsString("email");
-        return ResponseEntity.ok(courseService.getEnrolledCourses(studentEmail));
+    public ResponseEntity<List<CourseSimpleDto>> getEnrolledCourses(@AuthenticationPrincipal CurrentUser currentUser) {
+        return ResponseEntity.ok(courseService.getEnrolledCourses(currentUser.id()));
     }
 
     @GetMapping("/{courseId}")
     @Operation(summary = "Get a course", tags = {"Public"})
-    public ResponseEntity<CourseDto> getCourse(@PathVariable Long courseId) {
-        return ResponseEntity.ok(courseService.getCourse(courseId));
+    public ResponseEntity<CourseDto> getCourse(@PathVariable Long courseId, WebRequest request) {
+        String version = courseService.getCourseVersionTag(courseId);
+        String etag = HttpCachePolicy.etag("course", courseId, version);
+        return httpCachePolicy.conditional(request, etag, () -> courseService.getCourse(courseId, version));
     }
 
     @GetMapping
-    @Operation(summary = "Get all courses", tags = {"Public"})
-    public ResponseEntity<List<CourseDto>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    @Operation(summary = "Browse the course catalog", tags = {"Public"})
+    public ResponseEntity<CourseCatalogDto.CatalogPageDto> getCourseCatalog(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(courseService.getCourseCatalog(cursor, size));
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search courses", tags = {"Public"})
-    public ResponseEntity<List<CourseDto>> searchCourses(
-            @RequestParam(required = false) String title,
+    @Operation(summary = "Search courses by text, ranked and highlighted", tags = {"Public"})
+    public ResponseEntity<CourseSearchDto.SearchPageDto> searchCourses(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String instructor
+            @RequestParam(required = false) String instructor,
+            @RequestParam(defaultValue = "EXACT") CourseSearchDto.Mode mode,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
     ) {
-        return ResponseEntity.ok(courseService.searchCourses(title, category, instructor));
+        return ResponseEntity.ok(courseService.searchCourses(q, category, instructor, mode, page, size));
     }
 
     @GetMapping("/filter")
-    @Operation(summary = "Filter courses", tags = {"Public"})
-    public ResponseEntity<List<CourseDto>> filterCourses(
-            @RequestParam(required = false) Course.DifficultyLevel difficultyLevel,
-            @RequestParam(required = false) Integer duration
+    @Operation(summary = "Filter courses with facet counts", tags = {"Public"})
+    public ResponseEntity<CourseFilterDto.FilterPageDto> filterCourses(
+            @RequestParam(required = false) List<Long> categoryId,
+            @RequestParam(required = false) Long instructorId,
+            @RequestParam(required = false) Boolean published,
+            @RequestParam(required = false) List<Course.DifficultyLevel> difficultyLevel,
+            @RequestParam(required = false) Integer minDuration,
+            @RequestParam(required = false) Integer maxDuration,
+            @RequestParam(required = false) Integer duration,
+            @RequestParam(defaultValue = "NEWEST") CourseFilterDto.SortKey sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
     ) {
-        return ResponseEntity.ok(courseService.filterCourses(difficultyLevel, duration));
+        // "duration" is the original max-duration parameter, kept for existing clients
+        CourseFilterDto filter = CourseFilterDto.builder()
+                .categoryIds(categoryId != null ? categoryId : List.of())
+                .instructorId(instructorId)
+                .published(published)
+                .difficultyLevels(difficultyLevel != null ? difficultyLevel : List.of())
+                .minDuration(minDuration)
+                .maxDuration(maxDuration != null ? maxDuration : duration)
+                .sort(sort)
+                .build();
+        return ResponseEntity.ok(courseService.filterCourses(filter, page, size));
     }
 }
@@ -0,0 +1,75 @@
+package com.coursemanagement.controller;
+
+import com.coursemanagement.service.DataExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/api/v1/exports")
+@RequiredArgsConstructor
+@Tag(name = "Export Controller", description = "Streaming NDJSON/CSV exports for analytics")
+public class ExportController {
+    // Pass this header's value as `since` on the next call to export only what changed
+    private static final String HIGH_WATER_MARK_HEADER = "X-Export-High-Water-Mark";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final DataExportService dataExportService;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/courses")
+    @Operation(summary = "Export courses changed since a high-water mark", tags = {"Admin"})
+    public ResponseEntity<StreamingResponseBody> exportCourses(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime since,
+            @RequestParam(defaultValue = "NDJSON") DataExportService.Format format
+    ) {
+        ZonedDateTime until = dataExportService.highWaterMark();
+        return stream(format, until, out -> dataExportService.exportCourses(since, until, format, out));
+    }
+
+    @PreAuthorize("hasRole('ADMIN') or (#courseId != null and hasRole('INSTRUCTOR') and @courseAccessValidator.isInstructor(#courseId, authentication))")
+    @GetMapping("/enrollments")
+    @Operation(summary = "Export enrollments with progress counters", tags = {"Admin", "Instructor"})
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime since,
+            @RequestParam(defaultValue = "NDJSON") DataExportService.Format format
+    ) {
+        ZonedDateTime until = dataExportService.highWaterMark();
+        return stream(format, until, out -> dataExportService.exportEnrollments(courseId, since, until, format, out));
+    }
+
+    @PreAuthorize("hasRole('ADMIN') or (#courseId != null and hasRole('INSTRUCTOR') and @courseAccessValidator.isInstructor(#courseId, authentication))")
+    @GetMapping("/lesson-progress")
+    @Operation(summary = "Export per-lesson progress", tags = {"Admin", "Instructor"})
+    public ResponseEntity<StreamingResponseBody> exportLessonProgress(
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime since,
+            @RequestParam(defaultValue = "NDJSON") DataExportService.Format format
+    ) {
+        ZonedDateTime until = dataExportService.highWaterMark();
+        return stream(format, until, out -> dataExportService.exportLessonProgress(courseId, since, until, format, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(DataExportService.Format format, ZonedDateTime until,
+                                                         Consumer<OutputStream> writer) {
+        return ResponseEntity.ok()
+                .contentType(format == DataExportService.Format.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HIGH_WATER_MARK_HEADER, until.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
+                .body(writer::accept);
+    }
+}
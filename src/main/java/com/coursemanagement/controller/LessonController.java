@@ -1,5 +1,7 @@
 package com.coursemanagement.controller;
 
+import com.coursemanagement.config.CurrentUser;
+import com.coursemanagement.config.HttpCachePolicy;
 import com.coursemanagement.dto.LessonDto;
 import com.coursemanagement.dto.LessonProgressDto;
 import com.coursemanagement.entity.LessonProgress;
@@ -9,11 +11,12 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -23,7 +26,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -33,6 +38,7 @@ import java.util.List;
 public class LessonController {
     private final LessonService lessonService;
     private final LessonProgressService lessonProgressService;
+    private final HttpCachePolicy httpCachePolicy;
 
     @PreAuthorize("hasRole('INSTRUCTOR') and @courseAccessValidator.isInstructor(#courseId, authentication)")
     @PostMapping("/courses/{courseId}/lessons")
@@ -80,9 +86,8 @@ public class LessonController {
     public ResponseEntity<LessonProgressDto> updateLessonProgress(
             @PathVariable Long lessonId,
             @Valid @RequestBody LessonProgressDto.UpdateLessonProgressDto updateDto,
-            @AuthenticationPrincipal Jwt jwt) {
-        String studentEmail = jwt.getClaimAsString("email");
-        return ResponseEntity.ok(lessonProgressService.updateLessonProgress(studentEmail, lessonId, updateDto));
+            @AuthenticationPrincipal CurrentUser currentUser) {
+        return ResponseEntity.ok(lessonProgressService.updateLessonProgress(currentUser.id(), lessonId, updateDto));
     }
 
     @PreAuthorize("hasRole('STUDENT')")
@@ -91,9 +96,8 @@ public class LessonController {
     public ResponseEntity<LessonProgressDto> updateLessonProgressStatus(
             @PathVariable Long lessonId,
             @RequestParam LessonProgress.ProgressStatus status,
-            @AuthenticationPrincipal Jwt jwt) {
-        String studentEmail = jwt.getClaimAsString("email");
-        return ResponseEntity.ok(lessonProgressService.updateLessonProgressStatus(studentEmail, lessonId, status));
+            @AuthenticationPrincipal CurrentUser currentUser) {
+        return ResponseEntity.ok(lessonProgressService.updateLessonProgressStatus(currentUser.id(), lessonId, status));
     }
 
     @PreAuthorize("hasRole('STUDENT')")
@@ -101,14 +105,24 @@ public class LessonController {
     @Operation(summary = "Get lesson progress for a course", tags = {"Student"})
     public ResponseEntity<List<LessonProgressDto>> getLessonProgressByCourse(
             @PathVariable Long courseId,
-            @AuthenticationPrincipal Jwt jwt) {
-        String studentEmail = jwt.getClaimAsString("email");
-        return ResponseEntity.ok(lessonProgressService.getLessonProgressByCourse(studentEmail, courseId));
+            @AuthenticationPrincipal CurrentUser currentUser) {
+        return ResponseEntity.ok(lessonProgressService.getLessonProgressByCourse(currentUser.id(), courseId));
+    }
+
+    // Served as a Resource so Spring MVC answers Range requests with 206 partial content
+    @GetMapping(value = "/lessons/{lessonId}/content", produces = "text/plain;charset=UTF-8")
+    @Operation(summary = "Get the body of a lesson", tags = {"Public"})
+    public ResponseEntity<Resource> getLessonContent(@PathVariable Long lessonId, WebRequest request) {
+        String etag = HttpCachePolicy.etag("lesson-content", lessonId, lessonService.getLessonContentVersionTag(lessonId));
+        return httpCachePolicy.conditional(request, etag, () ->
+                new ByteArrayResource(lessonService.getLessonContent(lessonId).getBytes(StandardCharsets.UTF_8)));
     }
 
     @GetMapping("/courses/{courseId}/lessons")
     @Operation(summary = "Get lessons for a course", tags = {"Public"})
-    public ResponseEntity<List<LessonDto>> getLessonsByCourse(@PathVariable Long courseId) {
-        return ResponseEntity.ok(lessonService.getLessonsByCourse(courseId));
+    public ResponseEntity<List<LessonDto>> getLessonsByCourse(@PathVariable Long courseId, WebRequest request) {
+        String version = lessonService.getLessonsVersionTag(courseId);
+        String etag = HttpCachePolicy.etag("lessons", courseId, version);
+        return httpCachePolicy.conditional(request, etag, () -> lessonService.getLessonsByCourse(courseId, version));
     }
 }
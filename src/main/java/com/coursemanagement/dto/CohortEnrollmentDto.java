@@ -0,0 +1,57 @@
+package com.coursemanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class CohortEnrollmentDto {
+    private Long courseId;
+    private int requested;
+    private int enrolled;
+    private int alreadyEnrolled;
+    @Builder.Default
+    private List<String> unknownEmails = new ArrayList<>();
+    @Builder.Default
+    private List<String> ineligibleEmails = new ArrayList<>();
+
+    public enum Outcome {
+        ENROLLED, ALREADY_ENROLLED, UNKNOWN_USER, NOT_A_STUDENT, INVALID
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CreateCohortEnrollmentDto {
+        @Builder.Default
+        private List<String> emails = new ArrayList<>();
+    }
+
+    @Data
+    @Builder
+    public static class ImportReportDto {
+        private Long courseId;
+        private long processed;
+        @Builder.Default
+        private Map<Outcome, Long> totals = new EnumMap<>(Outcome.class);
+        @Builder.Default
+        private List<RowResultDto> rows = new ArrayList<>();
+    }
+
+    @Data
+    @Builder
+    public static class RowResultDto {
+        private long line;
+        private String email;
+        private Outcome outcome;
+        private String message;
+    }
+}
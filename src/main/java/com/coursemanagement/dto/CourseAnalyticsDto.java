@@ -0,0 +1,38 @@
+package com.coursemanagement.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+public class CourseAnalyticsDto {
+    private Long courseId;
+    private long enrolledLearners;
+    private long completedLearners;
+    private long activeLast7Days;
+    private long activeLast30Days;
+    // When the rollups behind these numbers were last rebuilt
+    private ZonedDateTime refreshedAt;
+    @Builder.Default
+    private List<LessonFunnelDto> lessons = new ArrayList<>();
+
+    @Data
+    @Builder
+    public static class LessonFunnelDto {
+        private Long lessonId;
+        private String title;
+        private Integer orderIndex;
+        private long notStarted;
+        private long inProgress;
+        private long completed;
+        private double completionRate;
+        // Share of the previous lesson's completers who have not completed this one
+        private double dropOff;
+        // Measured from enrollment to completing the lesson
+        private Double medianMinutesToComplete;
+    }
+}
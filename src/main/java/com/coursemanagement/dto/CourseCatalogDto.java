@@ -0,0 +1,37 @@
+package com.coursemanagement.dto;
+
+import com.coursemanagement.entity.Course;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+public class CourseCatalogDto {
+    private Long id;
+    private String title;
+    private String description;
+    private Long instructorId;
+    private String instructorName;
+    private Long categoryId;
+    private String categoryName;
+    private Course.DifficultyLevel difficultyLevel;
+    private Integer durationHours;
+    private Boolean isPublished;
+    private long enrollmentCount;
+    private ZonedDateTime createdAt;
+    private ZonedDateTime updatedAt;
+
+    @Data
+    @Builder
+    public static class CatalogPageDto {
+        @Builder.Default
+        private List<CourseCatalogDto> items = new ArrayList<>();
+        private int size;
+        private Long nextCursor;
+        private boolean hasMore;
+    }
+}
@@ -0,0 +1,80 @@
+package com.coursemanagement.dto;
+
+import com.coursemanagement.entity.Course;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class CourseFilterDto {
+    public enum SortKey {
+        NEWEST,
+        TITLE,
+        SHORTEST,
+        LONGEST,
+        MOST_ENROLLED
+    }
+
+    // Kept in step with the CASE expression in CourseRepository.findFilterFacets
+    public enum DurationBucket {
+        UNDER_5_HOURS,
+        FROM_5_TO_20_HOURS,
+        OVER_20_HOURS;
+
+        public static DurationBucket of(Integer durationHours) {
+            if (durationHours == null) {
+                return null;
+            }
+            if (durationHours < 5) {
+                return UNDER_5_HOURS;
+            }
+            return durationHours <= 20 ? FROM_5_TO_20_HOURS : OVER_20_HOURS;
+        }
+    }
+
+    @Builder.Default
+    private List<Long> categoryIds = new ArrayList<>();
+    private Long instructorId;
+    private Boolean published;
+    @Builder.Default
+    private List<Course.DifficultyLevel> difficultyLevels = new ArrayList<>();
+    private Integer minDuration;
+    private Integer maxDuration;
+    @Builder.Default
+    private SortKey sort = SortKey.NEWEST;
+
+    @Data
+    @Builder
+    public static class FilterPageDto {
+        @Builder.Default
+        private List<CourseCatalogDto> items = new ArrayList<>();
+        private int page;
+        private int size;
+        private long total;
+        private FacetsDto facets;
+    }
+
+    @Data
+    @Builder
+    public static class FacetsDto {
+        @Builder.Default
+        private Map<Course.DifficultyLevel, Long> difficultyLevels = new EnumMap<>(Course.DifficultyLevel.class);
+        @Builder.Default
+        private List<CategoryFacetDto> categories = new ArrayList<>();
+        @Builder.Default
+        private Map<DurationBucket, Long> durations = new EnumMap<>(DurationBucket.class);
+    }
+
+    @Data
+    @Builder
+    public static class CategoryFacetDto {
+        private Long categoryId;
+        private String categoryName;
+        private long count;
+    }
+}
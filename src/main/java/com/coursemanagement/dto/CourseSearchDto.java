@@ -0,0 +1,41 @@
+package com.coursemanagement.dto;
+
+import com.coursemanagement.entity.Course;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+public class CourseSearchDto {
+    public enum Mode {
+        EXACT,
+        FUZZY
+    }
+
+    private Long id;
+    private String title;
+    private String description;
+    private Long instructorId;
+    private String instructorName;
+    private Long categoryId;
+    private String categoryName;
+    private Course.DifficultyLevel difficultyLevel;
+    private Integer durationHours;
+    private float rank;
+    // HTML-escaped; matched terms are wrapped in <mark>
+    private String titleHighlight;
+    private String descriptionHighlight;
+
+    @Data
+    @Builder
+    public static class SearchPageDto {
+        @Builder.Default
+        private List<CourseSearchDto> items = new ArrayList<>();
+        private int page;
+        private int size;
+        private long total;
+    }
+}
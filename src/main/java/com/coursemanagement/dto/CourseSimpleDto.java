@@ -4,6 +4,8 @@ import com.coursemanagement.entity.Course;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.ZonedDateTime;
+
 @Data
 @Builder
 public class CourseSimpleDto {
@@ -18,6 +20,8 @@ public class CourseSimpleDto {
     public static class CourseProgressDto {
         private int totalLessons;
         private int completedLessons;
+        private int inProgressLessons;
         private double progressPercentage;
+        private ZonedDateTime lastAccessedAt;
     }
 }
@@ -11,7 +11,6 @@ public class LessonDto {
     private Long id;
     private String title;
     private String description;
-    private String content;
     private Integer orderIndex;
     private Integer durationMinutes;
     private Boolean isPublished;
@@ -12,15 +12,19 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -29,6 +33,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+// Categories are mapped from CategoryCatalog, so the graph leaves them as lazy references
+@NamedEntityGraph(name = Course.SUMMARY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("instructor")
+})
 @Table(name = "courses", schema = "course_management")
 @Data
 @Builder
@@ -36,6 +44,8 @@ import java.util.Set;
 @AllArgsConstructor
 @EqualsAndHashCode(of = "id")
 public class Course {
+    public static final String SUMMARY_GRAPH = "Course.summary";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -68,15 +78,22 @@ public class Course {
 
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("orderIndex ASC")
+    @BatchSize(size = 100)
     @ToString.Exclude
     @Builder.Default
     private Set<Lesson> lessons = new HashSet<>();
 
     @ManyToMany(mappedBy = "enrolledCourses")
+    @BatchSize(size = 100)
     @ToString.Exclude
     @Builder.Default
     private Set<User> enrolledStudents = new HashSet<>();
 
+    // Optimistic lock and part of the course ETag; lesson and enrollment changes are counted in course_content_versions
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private ZonedDateTime createdAt;
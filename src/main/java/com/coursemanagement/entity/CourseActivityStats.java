@@ -0,0 +1,38 @@
+package com.coursemanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.ZonedDateTime;
+
+// Read-only mapping of the course_activity_stats materialized view
+@Entity
+@Immutable
+@Table(name = "course_activity_stats", schema = "course_management")
+@Data
+@NoArgsConstructor
+public class CourseActivityStats {
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "enrolled_learners")
+    private Long enrolledLearners;
+
+    @Column(name = "completed_learners")
+    private Long completedLearners;
+
+    @Column(name = "active_last_7_days")
+    private Long activeLast7Days;
+
+    @Column(name = "active_last_30_days")
+    private Long activeLast30Days;
+
+    @Column(name = "refreshed_at")
+    private ZonedDateTime refreshedAt;
+}
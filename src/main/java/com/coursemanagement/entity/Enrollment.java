@@ -0,0 +1,36 @@
+package com.coursemanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.ZonedDateTime;
+
+@IdClass(EnrollmentId.class)
+@Entity
+@Table(name = "enrollments", schema = "course_management")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Enrollment {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @CreationTimestamp
+    @Column(name = "enrolled_at", nullable = false, updatable = false)
+    private ZonedDateTime enrolledAt;
+}
@@ -0,0 +1,17 @@
+package com.coursemanagement.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@EqualsAndHashCode
+@NoArgsConstructor(force = true)
+@AllArgsConstructor
+public class EnrollmentId implements java.io.Serializable {
+    private Long userId;
+    private Long courseId;
+}
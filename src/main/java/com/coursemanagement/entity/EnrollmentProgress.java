@@ -0,0 +1,53 @@
+package com.coursemanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.ZonedDateTime;
+
+@IdClass(EnrollmentProgressId.class)
+@Entity
+@Table(name = "enrollment_progress", schema = "course_management")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentProgress {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "total_lessons", nullable = false)
+    private Integer totalLessons;
+
+    @Column(name = "completed_lessons", nullable = false)
+    private Integer completedLessons;
+
+    @Column(name = "in_progress_lessons", nullable = false)
+    private Integer inProgressLessons;
+
+    @Column(name = "last_accessed_at")
+    private ZonedDateTime lastAccessedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private ZonedDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+}
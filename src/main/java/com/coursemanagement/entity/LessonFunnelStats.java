@@ -0,0 +1,45 @@
+package com.coursemanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.ZonedDateTime;
+
+// Read-only mapping of the lesson_funnel_stats materialized view
+@Entity
+@Immutable
+@Table(name = "lesson_funnel_stats", schema = "course_management")
+@Data
+@NoArgsConstructor
+public class LessonFunnelStats {
+    @Id
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    @Column(name = "course_id")
+    private Long courseId;
+
+    private String title;
+
+    @Column(name = "order_index")
+    private Integer orderIndex;
+
+    @Column(name = "enrolled_learners")
+    private Long enrolledLearners;
+
+    @Column(name = "in_progress")
+    private Long inProgress;
+
+    private Long completed;
+
+    @Column(name = "median_seconds_to_complete")
+    private Double medianSecondsToComplete;
+
+    @Column(name = "refreshed_at")
+    private ZonedDateTime refreshedAt;
+}
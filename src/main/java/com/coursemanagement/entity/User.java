@@ -49,6 +49,7 @@ public class User {
     @Column(nullable = false)
     private String role;
 
+    // Read-only view of the enrollments table; enrollments are written through EnrollmentRepository
     @ManyToMany
     @JoinTable(
             name = "enrollments",
@@ -67,15 +68,4 @@ public class User {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private ZonedDateTime updatedAt;
-
-    // Helper methods
-    public void enrollInCourse(Course course) {
-        enrolledCourses.add(course);
-        course.getEnrolledStudents().add(this);
-    }
-
-    public void unenrollFromCourse(Course course) {
-        enrolledCourses.remove(course);
-        course.getEnrolledStudents().remove(this);
-    }
 }
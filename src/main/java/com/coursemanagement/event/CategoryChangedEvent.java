@@ -0,0 +1,4 @@
+package com.coursemanagement.event;
+
+public record CategoryChangedEvent(Long categoryId) {
+}
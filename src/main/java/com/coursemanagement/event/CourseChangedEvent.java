@@ -0,0 +1,11 @@
+package com.coursemanagement.event;
+
+public record CourseChangedEvent(Long courseId, Change change) {
+    public enum Change {
+        CREATED,
+        UPDATED,
+        DELETED,
+        ENROLLMENTS,
+        LESSONS
+    }
+}
@@ -4,12 +4,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
 @RestControllerAdvice
 @Slf4j
@@ -39,6 +41,14 @@ public class GlobalExceptionHandler {
         return ErrorResponse.of(HttpStatus.CONFLICT.value(), "Database conflict", "The operation could not be completed due to a data conflict", request.getRequestURI());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.error("Concurrent modification: {}", ex.getMessage());
+        return ErrorResponse.of(HttpStatus.CONFLICT.value(), "Concurrent modification",
+                "The resource was modified by another request, reload it and try again", request.getRequestURI());
+    }
+
     @ExceptionHandler(HttpClientErrorException.Unauthorized.class)
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     public ErrorResponse handleHttpClientErrorExceptionUnauthorized(HttpClientErrorException.Unauthorized ex) {
@@ -47,6 +57,14 @@ public class GlobalExceptionHandler {
                 "An unexpected error occurred", request.getRequestURI());
     }
 
+    @ExceptionHandler(ResourceAccessException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleResourceAccessException(ResourceAccessException ex) {
+        log.error("Upstream service unavailable: {}", ex.getMessage());
+        return ErrorResponse.of(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service unavailable",
+                "An upstream service did not respond in time", request.getRequestURI());
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleAccessDeniedException(AccessDeniedException ex) {
@@ -2,6 +2,7 @@ package com.coursemanagement.mapper;
 
 import com.coursemanagement.dto.CategoryDto;
 import com.coursemanagement.entity.Category;
+import com.coursemanagement.service.CategoryCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -20,6 +21,17 @@ public class CategoryMapper {
                 .build();
     }
 
+    public CategoryDto toDto(CategoryCatalog.Entry entry) {
+        if (entry == null) return null;
+
+        return CategoryDto.builder()
+                .id(entry.id())
+                .name(entry.name())
+                .description(entry.description())
+                .createdAt(entry.createdAt())
+                .build();
+    }
+
     public Category toEntity(CategoryDto.CreateCategoryDto dto) {
         if (dto == null) return null;
 
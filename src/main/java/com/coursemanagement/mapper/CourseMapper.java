@@ -1,18 +1,30 @@
 package com.coursemanagement.mapper;
 
+import com.coursemanagement.dto.CategoryDto;
+import com.coursemanagement.dto.CourseCatalogDto;
 import com.coursemanagement.dto.CourseDto;
+import com.coursemanagement.dto.CourseFilterDto;
+import com.coursemanagement.dto.CourseSearchDto;
 import com.coursemanagement.dto.CourseSimpleDto;
+import com.coursemanagement.entity.Category;
 import com.coursemanagement.entity.Course;
+import com.coursemanagement.repository.projection.CourseCatalogView;
+import com.coursemanagement.repository.projection.CourseFacetView;
+import com.coursemanagement.repository.projection.CourseSearchHitView;
+import com.coursemanagement.repository.projection.EnrolledCourseProgressView;
+import com.coursemanagement.service.CategoryCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class CourseMapper {
     private final CategoryMapper categoryMapper;
+    private final CategoryCatalog categoryCatalog;
     private final UserMapper userMapper;
     private final LessonMapper lessonMapper;
 
@@ -24,7 +36,7 @@ public class CourseMapper {
                 .title(entity.getTitle())
                 .description(entity.getDescription())
                 .instructor(userMapper.toSimpleDto(entity.getInstructor()))
-                .category(categoryMapper.toDto(entity.getCategory()))
+                .category(toCategoryDto(entity.getCategory()))
                 .difficultyLevel(entity.getDifficultyLevel())
                 .durationHours(entity.getDurationHours())
                 .isPublished(entity.getIsPublished())
@@ -50,6 +62,89 @@ public class CourseMapper {
                 .build();
     }
 
+    public CourseSimpleDto toSimpleDto(EnrolledCourseProgressView view) {
+        if (view == null) return null;
+
+        int totalLessons = view.getTotalLessons() != null ? view.getTotalLessons() : 0;
+        int completedLessons = view.getCompletedLessons() != null ? view.getCompletedLessons() : 0;
+        int inProgressLessons = view.getInProgressLessons() != null ? view.getInProgressLessons() : 0;
+
+        return CourseSimpleDto.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .difficultyLevel(view.getDifficultyLevel())
+                .isPublished(view.getIsPublished())
+                .progress(CourseSimpleDto.CourseProgressDto.builder()
+                        .totalLessons(totalLessons)
+                        .completedLessons(completedLessons)
+                        .inProgressLessons(inProgressLessons)
+                        .lastAccessedAt(view.getLastAccessedAt())
+                        .progressPercentage(totalLessons > 0
+                                ? (completedLessons * 100.0 / totalLessons)
+                                : 0.0)
+                        .build())
+                .build();
+    }
+
+    public CourseCatalogDto toCatalogDto(CourseCatalogView view) {
+        if (view == null) return null;
+
+        return CourseCatalogDto.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .description(view.getDescription())
+                .instructorId(view.getInstructorId())
+                .instructorName(joinName(view.getInstructorFirstName(), view.getInstructorLastName()))
+                .categoryId(view.getCategoryId())
+                .categoryName(view.getCategoryName())
+                .difficultyLevel(view.getDifficultyLevel())
+                .durationHours(view.getDurationHours())
+                .isPublished(view.getIsPublished())
+                .enrollmentCount(view.getEnrollmentCount() != null ? view.getEnrollmentCount() : 0L)
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+
+    public CourseSearchDto toSearchDto(CourseSearchHitView view) {
+        if (view == null) return null;
+
+        return CourseSearchDto.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .description(view.getDescription())
+                .instructorId(view.getInstructorId())
+                .instructorName(joinName(view.getInstructorFirstName(), view.getInstructorLastName()))
+                .categoryId(view.getCategoryId())
+                .categoryName(view.getCategoryName())
+                .difficultyLevel(view.getDifficultyLevel())
+                .durationHours(view.getDurationHours())
+                .rank(view.getRank() != null ? view.getRank() : 0f)
+                .titleHighlight(view.getTitleHighlight())
+                .descriptionHighlight(view.getDescriptionHighlight())
+                .build();
+    }
+
+    public CourseSearchDto toSearchDto(CourseCatalogDto course, float rank, String titleHighlight,
+                                       String descriptionHighlight) {
+        if (course == null) return null;
+
+        return CourseSearchDto.builder()
+                .id(course.getId())
+                .title(course.getTitle())
+                .description(course.getDescription())
+                .instructorId(course.getInstructorId())
+                .instructorName(course.getInstructorName())
+                .categoryId(course.getCategoryId())
+                .categoryName(course.getCategoryName())
+                .difficultyLevel(course.getDifficultyLevel())
+                .durationHours(course.getDurationHours())
+                .rank(rank)
+                .titleHighlight(titleHighlight)
+                .descriptionHighlight(descriptionHighlight)
+                .build();
+    }
+
     public Course toEntity(CourseDto.CreateCourseDto dto) {
         if (dto == null) return null;
 
@@ -73,4 +168,57 @@ public class CourseMapper {
         if (dto.getDurationHours() != null) entity.setDurationHours(dto.getDurationHours());
         if (dto.getIsPublished() != null) entity.setIsPublished(dto.getIsPublished());
     }
+
+    public CourseFilterDto.FacetsDto toFacetsDto(List<CourseFacetView> rows) {
+        CourseFilterDto.FacetsDto facets = emptyFacets();
+        for (CourseFacetView row : rows) {
+            switch (row.getFacet()) {
+                case "DIFFICULTY" -> {
+                    if (row.getDifficultyLevel() != null) {
+                        facets.getDifficultyLevels().put(Course.DifficultyLevel.valueOf(row.getDifficultyLevel()), row.getCount());
+                    }
+                }
+                case "CATEGORY" -> facets.getCategories().add(CourseFilterDto.CategoryFacetDto.builder()
+                        .categoryId(row.getCategoryId())
+                        .categoryName(row.getCategoryName())
+                        .count(row.getCount())
+                        .build());
+                case "DURATION" -> {
+                    if (row.getDurationBucket() != null) {
+                        facets.getDurations().put(CourseFilterDto.DurationBucket.valueOf(row.getDurationBucket()), row.getCount());
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return facets;
+    }
+
+    // Every difficulty and duration bucket is present so the UI can render zero counts
+    public CourseFilterDto.FacetsDto emptyFacets() {
+        CourseFilterDto.FacetsDto facets = CourseFilterDto.FacetsDto.builder().build();
+        for (Course.DifficultyLevel level : Course.DifficultyLevel.values()) {
+            facets.getDifficultyLevels().put(level, 0L);
+        }
+        for (CourseFilterDto.DurationBucket bucket : CourseFilterDto.DurationBucket.values()) {
+            facets.getDurations().put(bucket, 0L);
+        }
+        return facets;
+    }
+
+    // Reads the in-memory category catalog; only the foreign key of the (possibly lazy) category is touched
+    private CategoryDto toCategoryDto(Category category) {
+        if (category == null) return null;
+
+        return categoryCatalog.find(category.getId())
+                .map(categoryMapper::toDto)
+                .orElse(null);
+    }
+
+    private String joinName(String firstName, String lastName) {
+        if (lastName == null || lastName.isBlank()) return firstName;
+        if (firstName == null || firstName.isBlank()) return lastName;
+        return firstName + " " + lastName;
+    }
 }
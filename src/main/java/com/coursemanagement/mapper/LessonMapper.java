@@ -5,6 +5,8 @@ import com.coursemanagement.entity.Lesson;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
+
 @Component
 @RequiredArgsConstructor
 public class LessonMapper {
@@ -16,7 +18,6 @@ public class LessonMapper {
                 .id(entity.getId())
                 .title(entity.getTitle())
                 .description(entity.getDescription())
-                .content(entity.getContent())
                 .orderIndex(entity.getOrderIndex())
                 .durationMinutes(entity.getDurationMinutes())
                 .isPublished(entity.getIsPublished())
@@ -32,21 +33,37 @@ public class LessonMapper {
         return Lesson.builder()
                 .title(dto.getTitle())
                 .description(dto.getDescription())
-                .content(dto.getContent())
                 .orderIndex(dto.getOrderIndex())
                 .durationMinutes(dto.getDurationMinutes())
                 .isPublished(false)
                 .build();
     }
 
-    public void updateEntity(Lesson entity, LessonDto.UpdateLessonDto dto) {
-        if (entity == null || dto == null) return;
+    // Returns whether any of the lesson's metadata changed
+    public boolean updateEntity(Lesson entity, LessonDto.UpdateLessonDto dto) {
+        if (entity == null || dto == null) return false;
 
-        if (dto.getTitle() != null) entity.setTitle(dto.getTitle());
-        if (dto.getDescription() != null) entity.setDescription(dto.getDescription());
-        if (dto.getContent() != null) entity.setContent(dto.getContent());
-        if (dto.getOrderIndex() != null) entity.setOrderIndex(dto.getOrderIndex());
-        if (dto.getDurationMinutes() != null) entity.setDurationMinutes(dto.getDurationMinutes());
-        if (dto.getIsPublished() != null) entity.setIsPublished(dto.getIsPublished());
+        boolean changed = false;
+        if (dto.getTitle() != null && !Objects.equals(dto.getTitle(), entity.getTitle())) {
+            entity.setTitle(dto.getTitle());
+            changed = true;
+        }
+        if (dto.getDescription() != null && !Objects.equals(dto.getDescription(), entity.getDescription())) {
+            entity.setDescription(dto.getDescription());
+            changed = true;
+        }
+        if (dto.getOrderIndex() != null && !Objects.equals(dto.getOrderIndex(), entity.getOrderIndex())) {
+            entity.setOrderIndex(dto.getOrderIndex());
+            changed = true;
+        }
+        if (dto.getDurationMinutes() != null && !Objects.equals(dto.getDurationMinutes(), entity.getDurationMinutes())) {
+            entity.setDurationMinutes(dto.getDurationMinutes());
+            changed = true;
+        }
+        if (dto.getIsPublished() != null && !Objects.equals(dto.getIsPublished(), entity.getIsPublished())) {
+            entity.setIsPublished(dto.getIsPublished());
+            changed = true;
+        }
+        return changed;
     }
 }
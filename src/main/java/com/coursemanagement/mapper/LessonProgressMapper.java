@@ -3,6 +3,7 @@ package com.coursemanagement.mapper;
 import com.coursemanagement.dto.LessonProgressDto;
 import com.coursemanagement.entity.Lesson;
 import com.coursemanagement.entity.LessonProgress;
+import com.coursemanagement.repository.projection.LessonProgressView;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -25,6 +26,26 @@ public class LessonProgressMapper {
                 .build();
     }
 
+    public LessonProgressDto toDto(Long userId, LessonProgressView view) {
+        if (view == null) return null;
+
+        // Lessons the student has not touched yet have no progress row
+        return LessonProgressDto.builder()
+                .userId(userId)
+                .lessonId(view.getLessonId())
+                .lesson(LessonProgressDto.LessonSimpleDto.builder()
+                        .id(view.getLessonId())
+                        .title(view.getTitle())
+                        .orderIndex(view.getOrderIndex())
+                        .courseId(view.getCourseId())
+                        .build())
+                .status(view.getStatus() != null ? view.getStatus() : LessonProgress.ProgressStatus.NOT_STARTED)
+                .completedAt(view.getCompletedAt())
+                .lastAccessedAt(view.getLastAccessedAt())
+                .createdAt(view.getCreatedAt())
+                .build();
+    }
+
     private LessonProgressDto.LessonSimpleDto toLessonSimpleDto(Lesson lesson) {
         if (lesson == null) return null;
 
@@ -0,0 +1,13 @@
+package com.coursemanagement.repository;
+
+import com.coursemanagement.entity.CourseActivityStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CourseActivityStatsRepository extends JpaRepository<CourseActivityStats, Long> {
+    List<CourseActivityStats> findByCourseIdIn(Collection<Long> courseIds);
+}
@@ -2,48 +2,308 @@ package com.coursemanagement.repository;
 
 import com.coursemanagement.entity.Category;
 import com.coursemanagement.entity.Course;
-import com.coursemanagement.entity.User;
+import com.coursemanagement.repository.projection.CourseCatalogView;
+import com.coursemanagement.repository.projection.CourseFacetView;
+import com.coursemanagement.repository.projection.CourseSearchHitView;
+import com.coursemanagement.repository.projection.CourseVersionView;
+import com.coursemanagement.repository.projection.EnrolledCourseProgressView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
     List<Course> findByCategory(Category category);
 
-    List<Course> findByInstructor(User instructor);
-
-    @Query(""" 
-                SELECT DISTINCT c FROM Course c
-                LEFT JOIN c.instructor i
-                LEFT JOIN c.category cat
-                WHERE
-                    (:title IS NULL OR LOWER(c.title) LIKE LOWER(CONCAT('%', :title, '%')))
-                    AND (:category IS NULL OR LOWER(cat.name) LIKE LOWER(CONCAT('%', :category, '%')))
-                    AND (:firstName IS NULL OR LOWER(i.firstName) LIKE LOWER(CONCAT('%', :firstName, '%')))
-                    AND (:lastName IS NULL OR LOWER(i.lastName) LIKE LOWER(CONCAT('%', :lastName, '%')))
+    @Query("SELECT c.id FROM Course c WHERE c.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT c.instructor.id FROM Course c WHERE c.id = :courseId")
+    Optional<Long> findInstructorIdById(@Param("courseId") Long courseId);
+
+    @EntityGraph(Course.SUMMARY_GRAPH)
+    Optional<Course> findDetailedById(Long id);
+
+    @Query(value = """
+                SELECT c.version AS "courseVersion", c.category_id AS "categoryId",
+                       COALESCE(v.lessons_version, 0) AS "lessonsVersion",
+                       COALESCE(v.enrollments_version, 0) AS "enrollmentsVersion"
+                FROM course_management.courses c
+                LEFT JOIN course_management.course_content_versions v ON v.course_id = c.id
+                WHERE c.id = :courseId
+            """, nativeQuery = true)
+    Optional<CourseVersionView> findVersionById(@Param("courseId") Long courseId);
+
+    // Lesson writes don't touch the course row; counting them separately keeps it free of extra locks
+    @Modifying
+    @Query(value = """
+                INSERT INTO course_management.course_content_versions (course_id, lessons_version)
+                VALUES (:courseId, 1)
+                ON CONFLICT (course_id) DO UPDATE
+                SET lessons_version = course_content_versions.lessons_version + 1
+            """, nativeQuery = true)
+    int incrementLessonsVersion(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO course_management.course_content_versions (course_id, enrollments_version)
+                VALUES (:courseId, 1)
+                ON CONFLICT (course_id) DO UPDATE
+                SET enrollments_version = course_content_versions.enrollments_version + 1
+            """, nativeQuery = true)
+    int incrementEnrollmentsVersion(@Param("courseId") Long courseId);
+
+    @EntityGraph(Course.SUMMARY_GRAPH)
+    List<Course> findByInstructorId(Long instructorId);
+
+    @Query("""
+                SELECT c.id AS id, c.title AS title, c.description AS description,
+                       i.id AS instructorId, i.firstName AS instructorFirstName, i.lastName AS instructorLastName,
+                       cat.id AS categoryId, cat.name AS categoryName,
+                       c.difficultyLevel AS difficultyLevel, c.durationHours AS durationHours,
+                       c.isPublished AS isPublished,
+                       (SELECT COUNT(e) FROM Enrollment e WHERE e.courseId = c.id) AS enrollmentCount,
+                       c.createdAt AS createdAt, c.updatedAt AS updatedAt
+                FROM Course c
+                JOIN c.instructor i
+                JOIN c.category cat
+                WHERE c.id > :afterId
+                ORDER BY c.id ASC
+            """)
+    List<CourseCatalogView> findCatalogPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("""
+                SELECT c.id AS id, c.title AS title, c.description AS description,
+                       i.id AS instructorId, i.firstName AS instructorFirstName, i.lastName AS instructorLastName,
+                       cat.id AS categoryId, cat.name AS categoryName,
+                       c.difficultyLevel AS difficultyLevel, c.durationHours AS durationHours,
+                       c.isPublished AS isPublished,
+                       (SELECT COUNT(e) FROM Enrollment e WHERE e.courseId = c.id) AS enrollmentCount,
+                       c.createdAt AS createdAt, c.updatedAt AS updatedAt
+                FROM Course c
+                JOIN c.instructor i
+                JOIN c.category cat
+                WHERE c.id IN :ids
+            """)
+    List<CourseCatalogView> findCatalogEntries(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+                SELECT c.id AS id, c.title AS title, c.difficultyLevel AS difficultyLevel,
+                       c.isPublished AS isPublished,
+                       ep.totalLessons AS totalLessons,
+                       ep.completedLessons AS completedLessons,
+                       ep.inProgressLessons AS inProgressLessons,
+                       ep.lastAccessedAt AS lastAccessedAt
+                FROM EnrollmentProgress ep
+                JOIN Course c ON c.id = ep.courseId
+                WHERE ep.userId = :userId
             """)
-    List<Course> searchCourses(
-            @Param("title") String title,
+    List<EnrolledCourseProgressView> findEnrolledCourseProgress(@Param("userId") Long userId);
+
+    // Ranks on the GIN-indexed search_vector first; highlights are computed for the returned page only,
+    // over HTML-escaped text so the <mark> tags are the only markup in them
+    @Query(value = """
+                WITH q AS (
+                    -- A query of only stop words parses to an empty tsquery; list unfiltered instead
+                    SELECT CASE WHEN numnode(t.query) > 0 THEN t.query END AS query
+                    FROM (SELECT to_tsquery('english', CAST(:query AS text)) AS query) t
+                )
+                SELECT c.id AS "id", c.title AS "title", c.description AS "description",
+                       u.id AS "instructorId", u.first_name AS "instructorFirstName", u.last_name AS "instructorLastName",
+                       cat.id AS "categoryId", cat.name AS "categoryName",
+                       c.difficulty_level AS "difficultyLevel", c.duration_hours AS "durationHours",
+                       ranked.rank AS "rank", ranked.total AS "total",
+                       CASE WHEN ranked.query IS NULL THEN course_management.html_escape(c.title)
+                            ELSE ts_headline('english', course_management.html_escape(c.title), ranked.query,
+                                             'StartSel=<mark>, StopSel=</mark>, HighlightAll=true')
+                       END AS "titleHighlight",
+                       CASE WHEN ranked.query IS NULL OR c.description IS NULL
+                                THEN course_management.html_escape(c.description)
+                            ELSE ts_headline('english', course_management.html_escape(c.description), ranked.query,
+                                             'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5')
+                       END AS "descriptionHighlight"
+                FROM (
+                    SELECT c.id, matched.query,
+                           COALESCE(ts_rank(c.search_vector, matched.query), 0) AS rank,
+                           COUNT(*) OVER () AS total
+                    FROM (
+                        -- Matching stays in a branch of its own: ORed with "query IS NULL" the @@ could
+                        -- not use idx_courses_search_vector
+                        SELECT c.id, q.query
+                        FROM q
+                        JOIN course_management.courses c ON c.search_vector @@ q.query
+                        UNION ALL
+                        SELECT c.id, q.query
+                        FROM q
+                        CROSS JOIN course_management.courses c
+                        WHERE q.query IS NULL
+                    ) matched
+                    JOIN course_management.courses c ON c.id = matched.id
+                    JOIN course_management.categories cat ON cat.id = c.category_id
+                    JOIN course_management.users u ON u.id = c.instructor_id
+                    WHERE (CAST(:category AS text) IS NULL
+                           OR cat.name ILIKE '%' || CAST(:category AS text) || '%')
+                      AND (CAST(:instructor AS text) IS NULL
+                           OR (COALESCE(u.first_name, '') || ' ' || COALESCE(u.last_name, ''))
+                              ILIKE '%' || CAST(:instructor AS text) || '%')
+                    ORDER BY rank DESC, c.id
+                    LIMIT :limit OFFSET :offset
+                ) ranked
+                JOIN course_management.courses c ON c.id = ranked.id
+                JOIN course_management.categories cat ON cat.id = c.category_id
+                JOIN course_management.users u ON u.id = c.instructor_id
+                ORDER BY ranked.rank DESC, c.id
+            """, nativeQuery = true)
+    List<CourseSearchHitView> searchCourses(
+            @Param("query") String query,
             @Param("category") String category,
-            @Param("firstName") String firstName,
-            @Param("lastName") String lastName
+            @Param("instructor") String instructor,
+            @Param("limit") int limit,
+            @Param("offset") int offset
     );
 
+    // Typo-tolerant variant: category and instructor match by trigram similarity, which also adds to the rank
+    @Query(value = """
+                WITH q AS (
+                    -- A query of only stop words parses to an empty tsquery; list unfiltered instead
+                    SELECT CASE WHEN numnode(t.query) > 0 THEN t.query END AS query
+                    FROM (SELECT to_tsquery('english', CAST(:query AS text)) AS query) t
+                )
+                SELECT c.id AS "id", c.title AS "title", c.description AS "description",
+                       u.id AS "instructorId", u.first_name AS "instructorFirstName", u.last_name AS "instructorLastName",
+                       cat.id AS "categoryId", cat.name AS "categoryName",
+                       c.difficulty_level AS "difficultyLevel", c.duration_hours AS "durationHours",
+                       ranked.rank AS "rank", ranked.total AS "total",
+                       CASE WHEN ranked.query IS NULL THEN course_management.html_escape(c.title)
+                            ELSE ts_headline('english', course_management.html_escape(c.title), ranked.query,
+                                             'StartSel=<mark>, StopSel=</mark>, HighlightAll=true')
+                       END AS "titleHighlight",
+                       CASE WHEN ranked.query IS NULL OR c.description IS NULL
+                                THEN course_management.html_escape(c.description)
+                            ELSE ts_headline('english', course_management.html_escape(c.description), ranked.query,
+                                             'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5')
+                       END AS "descriptionHighlight"
+                FROM (
+                    SELECT c.id, matched.query,
+                           COALESCE(ts_rank(c.search_vector, matched.query), 0)
+                               + COALESCE(word_similarity(CAST(:category AS text), cat.name), 0)
+                               + COALESCE(word_similarity(CAST(:instructor AS text),
+                                                          COALESCE(u.first_name, '') || ' ' || COALESCE(u.last_name, '')), 0)
+                               AS rank,
+                           COUNT(*) OVER () AS total
+                    FROM (
+                        -- Matching stays in a branch of its own: ORed with "query IS NULL" the @@ could
+                        -- not use idx_courses_search_vector
+                        SELECT c.id, q.query
+                        FROM q
+                        JOIN course_management.courses c ON c.search_vector @@ q.query
+                        UNION ALL
+                        SELECT c.id, q.query
+                        FROM q
+                        CROSS JOIN course_management.courses c
+                        WHERE q.query IS NULL
+                    ) matched
+                    JOIN course_management.courses c ON c.id = matched.id
+                    JOIN course_management.categories cat ON cat.id = c.category_id
+                    JOIN course_management.users u ON u.id = c.instructor_id
+                    WHERE (CAST(:category AS text) IS NULL
+                           OR CAST(:category AS text) <% cat.name
+                           OR cat.name % CAST(:category AS text))
+                      AND (CAST(:instructor AS text) IS NULL
+                           OR CAST(:instructor AS text) <% (COALESCE(u.first_name, '') || ' ' || COALESCE(u.last_name, ''))
+                           OR (COALESCE(u.first_name, '') || ' ' || COALESCE(u.last_name, '')) % CAST(:instructor AS text))
+                    ORDER BY rank DESC, c.id
+                    LIMIT :limit OFFSET :offset
+                ) ranked
+                JOIN course_management.courses c ON c.id = ranked.id
+                JOIN course_management.categories cat ON cat.id = c.category_id
+                JOIN course_management.users u ON u.id = c.instructor_id
+                ORDER BY ranked.rank DESC, c.id
+            """, nativeQuery = true)
+    List<CourseSearchHitView> searchCoursesFuzzy(
+            @Param("query") String query,
+            @Param("category") String category,
+            @Param("instructor") String instructor,
+            @Param("limit") int limit,
+            @Param("offset") int offset
+    );
+
+    // Empty collections cannot be bound to IN, so callers pass a placeholder list together with an "any" flag
     @Query("""
-                SELECT DISTINCT c
+                SELECT c.id AS id, c.title AS title, c.description AS description,
+                       i.id AS instructorId, i.firstName AS instructorFirstName, i.lastName AS instructorLastName,
+                       cat.id AS categoryId, cat.name AS categoryName,
+                       c.difficultyLevel AS difficultyLevel, c.durationHours AS durationHours,
+                       c.isPublished AS isPublished,
+                       (SELECT COUNT(e) FROM Enrollment e WHERE e.courseId = c.id) AS enrollmentCount,
+                       c.createdAt AS createdAt, c.updatedAt AS updatedAt
                 FROM Course c
-                LEFT JOIN FETCH c.instructor
-                LEFT JOIN FETCH c.category
-                WHERE
-                    (:difficultyLevel IS NULL OR c.difficultyLevel = :difficultyLevel)
-                    AND (:duration IS NULL OR c.durationHours <= :duration)
+                JOIN c.instructor i
+                JOIN c.category cat
+                WHERE (:anyCategory = true OR cat.id IN :categoryIds)
+                  AND (:instructorId IS NULL OR i.id = :instructorId)
+                  AND (:published IS NULL OR c.isPublished = :published)
+                  AND (:anyDifficulty = true OR c.difficultyLevel IN :difficultyLevels)
+                  AND (:minDuration IS NULL OR c.durationHours >= :minDuration)
+                  AND (:maxDuration IS NULL OR c.durationHours <= :maxDuration)
             """)
-    List<Course> filterCourses(
-            @Param("difficultyLevel") Course.DifficultyLevel difficultyLevel,
-            @Param("duration") Integer duration
+    List<CourseCatalogView> filterCatalog(
+            @Param("anyCategory") boolean anyCategory,
+            @Param("categoryIds") Collection<Long> categoryIds,
+            @Param("instructorId") Long instructorId,
+            @Param("published") Boolean published,
+            @Param("anyDifficulty") boolean anyDifficulty,
+            @Param("difficultyLevels") Collection<Course.DifficultyLevel> difficultyLevels,
+            @Param("minDuration") Integer minDuration,
+            @Param("maxDuration") Integer maxDuration,
+            Pageable pageable
+    );
+
+    // One scan over the filtered rows yields every facet; the () grouping set carries the total
+    @Query(value = """
+                SELECT CASE WHEN GROUPING(f.difficulty_level) = 0 THEN 'DIFFICULTY'
+                            WHEN GROUPING(f.category_id) = 0 THEN 'CATEGORY'
+                            WHEN GROUPING(f.duration_bucket) = 0 THEN 'DURATION'
+                            ELSE 'TOTAL'
+                       END AS "facet",
+                       f.difficulty_level AS "difficultyLevel",
+                       f.category_id AS "categoryId", f.category_name AS "categoryName",
+                       f.duration_bucket AS "durationBucket",
+                       COUNT(*) AS "count"
+                FROM (
+                    SELECT c.difficulty_level, c.category_id, cat.name AS category_name,
+                           CASE WHEN c.duration_hours < 5 THEN 'UNDER_5_HOURS'
+                                WHEN c.duration_hours <= 20 THEN 'FROM_5_TO_20_HOURS'
+                                WHEN c.duration_hours > 20 THEN 'OVER_20_HOURS'
+                           END AS duration_bucket
+                    FROM course_management.courses c
+                    JOIN course_management.categories cat ON cat.id = c.category_id
+                    WHERE (:anyCategory OR c.category_id IN (:categoryIds))
+                      AND (CAST(:instructorId AS bigint) IS NULL OR c.instructor_id = CAST(:instructorId AS bigint))
+                      AND (CAST(:published AS boolean) IS NULL OR c.is_published = CAST(:published AS boolean))
+                      AND (:anyDifficulty OR c.difficulty_level IN (:difficultyLevels))
+                      AND (CAST(:minDuration AS integer) IS NULL OR c.duration_hours >= CAST(:minDuration AS integer))
+                      AND (CAST(:maxDuration AS integer) IS NULL OR c.duration_hours <= CAST(:maxDuration AS integer))
+                ) f
+                GROUP BY GROUPING SETS ((f.difficulty_level), (f.category_id, f.category_name), (f.duration_bucket), ())
+                ORDER BY "facet", "count" DESC, f.category_name
+            """, nativeQuery = true)
+    List<CourseFacetView> findFilterFacets(
+            @Param("anyCategory") boolean anyCategory,
+            @Param("categoryIds") Collection<Long> categoryIds,
+            @Param("instructorId") Long instructorId,
+            @Param("published") Boolean published,
+            @Param("anyDifficulty") boolean anyDifficulty,
+            @Param("difficultyLevels") Collection<String> difficultyLevels,
+            @Param("minDuration") Integer minDuration,
+            @Param("maxDuration") Integer maxDuration
     );
 }
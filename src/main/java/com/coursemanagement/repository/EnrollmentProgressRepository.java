@@ -0,0 +1,103 @@
+package com.coursemanagement.repository;
+
+import com.coursemanagement.entity.EnrollmentProgress;
+import com.coursemanagement.entity.EnrollmentProgressId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+
+@Repository
+public interface EnrollmentProgressRepository extends JpaRepository<EnrollmentProgress, EnrollmentProgressId> {
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO course_management.enrollment_progress
+                    (user_id, course_id, total_lessons, completed_lessons, in_progress_lessons, last_accessed_at)
+                SELECT e.user_id,
+                       e.course_id,
+                       COUNT(l.id),
+                       COUNT(lp.lesson_id) FILTER (WHERE lp.status = 'COMPLETED'),
+                       COUNT(lp.lesson_id) FILTER (WHERE lp.status = 'IN_PROGRESS'),
+                       MAX(lp.last_accessed_at)
+                FROM course_management.enrollments e
+                LEFT JOIN course_management.lessons l ON l.course_id = e.course_id
+                LEFT JOIN course_management.lesson_progress lp ON lp.lesson_id = l.id AND lp.user_id = e.user_id
+                WHERE e.course_id = :courseId AND e.user_id IN (:userIds)
+                GROUP BY e.user_id, e.course_id
+                ON CONFLICT (user_id, course_id) DO UPDATE
+                SET total_lessons       = EXCLUDED.total_lessons,
+                    completed_lessons   = EXCLUDED.completed_lessons,
+                    in_progress_lessons = EXCLUDED.in_progress_lessons,
+                    last_accessed_at    = EXCLUDED.last_accessed_at,
+                    updated_at          = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int rebuild(@Param("userIds") Collection<Long> userIds, @Param("courseId") Long courseId);
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO course_management.enrollment_progress
+                    (user_id, course_id, total_lessons, completed_lessons, in_progress_lessons, last_accessed_at)
+                SELECT e.user_id,
+                       e.course_id,
+                       COUNT(l.id),
+                       COUNT(lp.lesson_id) FILTER (WHERE lp.status = 'COMPLETED'),
+                       COUNT(lp.lesson_id) FILTER (WHERE lp.status = 'IN_PROGRESS'),
+                       MAX(lp.last_accessed_at)
+                FROM course_management.enrollments e
+                LEFT JOIN course_management.lessons l ON l.course_id = e.course_id
+                LEFT JOIN course_management.lesson_progress lp ON lp.lesson_id = l.id AND lp.user_id = e.user_id
+                GROUP BY e.user_id, e.course_id
+                ON CONFLICT (user_id, course_id) DO UPDATE
+                SET total_lessons       = EXCLUDED.total_lessons,
+                    completed_lessons   = EXCLUDED.completed_lessons,
+                    in_progress_lessons = EXCLUDED.in_progress_lessons,
+                    last_accessed_at    = EXCLUDED.last_accessed_at,
+                    updated_at          = CURRENT_TIMESTAMP
+                WHERE (enrollment_progress.total_lessons, enrollment_progress.completed_lessons,
+                       enrollment_progress.in_progress_lessons, enrollment_progress.last_accessed_at)
+                      IS DISTINCT FROM
+                      (EXCLUDED.total_lessons, EXCLUDED.completed_lessons,
+                       EXCLUDED.in_progress_lessons, EXCLUDED.last_accessed_at)
+            """, nativeQuery = true)
+    int rebuildAll();
+
+    @Modifying
+    @Query(value = """
+                UPDATE course_management.enrollment_progress
+                SET completed_lessons   = completed_lessons + :completedDelta,
+                    in_progress_lessons = in_progress_lessons + :inProgressDelta,
+                    last_accessed_at    = GREATEST(last_accessed_at, CAST(:lastAccessedAt AS TIMESTAMP WITH TIME ZONE)),
+                    updated_at          = CURRENT_TIMESTAMP
+                WHERE user_id = :userId AND course_id = :courseId
+            """, nativeQuery = true)
+    int applyProgressChange(@Param("userId") Long userId,
+                            @Param("courseId") Long courseId,
+                            @Param("completedDelta") int completedDelta,
+                            @Param("inProgressDelta") int inProgressDelta,
+                            @Param("lastAccessedAt") ZonedDateTime lastAccessedAt);
+
+    @Modifying
+    @Query("UPDATE EnrollmentProgress ep SET ep.totalLessons = ep.totalLessons + 1 " +
+            "WHERE ep.courseId = :courseId")
+    int incrementTotalLessons(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query(value = """
+                UPDATE course_management.enrollment_progress ep
+                SET total_lessons       = GREATEST(ep.total_lessons - 1, 0),
+                    completed_lessons   = ep.completed_lessons - (
+                        SELECT COUNT(*) FROM course_management.lesson_progress lp
+                        WHERE lp.user_id = ep.user_id AND lp.lesson_id = :lessonId AND lp.status = 'COMPLETED'),
+                    in_progress_lessons = ep.in_progress_lessons - (
+                        SELECT COUNT(*) FROM course_management.lesson_progress lp
+                        WHERE lp.user_id = ep.user_id AND lp.lesson_id = :lessonId AND lp.status = 'IN_PROGRESS'),
+                    updated_at          = CURRENT_TIMESTAMP
+                WHERE ep.course_id = :courseId
+            """, nativeQuery = true)
+    int discountLesson(@Param("lessonId") Long lessonId, @Param("courseId") Long courseId);
+}
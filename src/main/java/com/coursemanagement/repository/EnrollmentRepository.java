@@ -0,0 +1,35 @@
+package com.coursemanagement.repository;
+
+import com.coursemanagement.entity.Enrollment;
+import com.coursemanagement.entity.EnrollmentId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EnrollmentRepository extends JpaRepository<Enrollment, EnrollmentId> {
+    boolean existsByUserIdAndCourseId(Long userId, Long courseId);
+
+    long countByCourseId(Long courseId);
+
+    @Query("SELECT e.userId FROM Enrollment e WHERE e.courseId = :courseId AND e.userId IN :userIds")
+    List<Long> findEnrolledUserIds(@Param("courseId") Long courseId, @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO course_management.enrollments (user_id, course_id)
+                SELECT u.id, :courseId FROM course_management.users u
+                WHERE u.id IN (:userIds)
+                ON CONFLICT (user_id, course_id) DO NOTHING
+            """, nativeQuery = true)
+    int enrollStudents(@Param("courseId") Long courseId, @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM Enrollment e WHERE e.userId = :userId AND e.courseId = :courseId")
+    int unenroll(@Param("userId") Long userId, @Param("courseId") Long courseId);
+}
@@ -0,0 +1,15 @@
+package com.coursemanagement.repository;
+
+import com.coursemanagement.entity.LessonContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LessonContentRepository extends JpaRepository<LessonContent, Long> {
+    @Query("SELECT lc.version FROM LessonContent lc WHERE lc.lessonId = :lessonId")
+    Optional<Long> findVersionByLessonId(@Param("lessonId") Long lessonId);
+}
@@ -0,0 +1,12 @@
+package com.coursemanagement.repository;
+
+import com.coursemanagement.entity.LessonFunnelStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LessonFunnelStatsRepository extends JpaRepository<LessonFunnelStats, Long> {
+    List<LessonFunnelStats> findByCourseIdOrderByOrderIndexAsc(Long courseId);
+}
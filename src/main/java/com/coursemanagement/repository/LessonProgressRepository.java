@@ -1,11 +1,14 @@
 package com.coursemanagement.repository;
 
 import com.coursemanagement.entity.LessonProgress;
+import com.coursemanagement.repository.projection.LessonProgressView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +21,27 @@ public interface LessonProgressRepository extends JpaRepository<LessonProgress,
             "WHERE lp.userId = :userId AND l.course.id = :courseId")
     List<LessonProgress> findByUserIdAndCourseId(@Param("userId") Long userId,
                                                  @Param("courseId") Long courseId);
+
+    @Query("""
+                SELECT l.id AS lessonId, l.title AS title, l.orderIndex AS orderIndex, l.course.id AS courseId,
+                       lp.status AS status, lp.completedAt AS completedAt,
+                       lp.lastAccessedAt AS lastAccessedAt, lp.createdAt AS createdAt
+                FROM EnrollmentProgress ep
+                JOIN Lesson l ON l.course.id = ep.courseId
+                LEFT JOIN LessonProgress lp ON lp.lessonId = l.id AND lp.userId = ep.userId
+                WHERE ep.userId = :userId AND ep.courseId = :courseId AND l.isPublished = true
+                ORDER BY l.orderIndex ASC
+            """)
+    List<LessonProgressView> findCourseProgress(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO course_management.lesson_progress (user_id, lesson_id, status)
+                SELECT u.id, l.id, 'NOT_STARTED'
+                FROM course_management.users u
+                CROSS JOIN course_management.lessons l
+                WHERE u.id IN (:userIds) AND l.course_id = :courseId
+                ON CONFLICT (user_id, lesson_id) DO NOTHING
+            """, nativeQuery = true)
+    int initializeForCourse(@Param("userIds") Collection<Long> userIds, @Param("courseId") Long courseId);
 }
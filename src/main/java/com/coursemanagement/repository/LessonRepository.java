@@ -16,6 +16,8 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
 
     List<Lesson> findByCourseIdOrderByOrderIndexAsc(Long courseId);
 
+    boolean existsByCourseIdAndIsPublishedFalse(Long courseId);
+
     @Query("SELECT COALESCE(MAX(l.orderIndex), 0) FROM Lesson l WHERE l.course.id = :courseId")
     Optional<Integer> findMaxOrderIndexByCourseId(@Param("courseId") Long courseId);
 
@@ -1,12 +1,29 @@
 package com.coursemanagement.repository;
 
 import com.coursemanagement.entity.User;
+import com.coursemanagement.repository.projection.UserIdentityView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    Optional<User> findByKeycloakId(String keycloakId);
+
+    @Query("SELECT u.id AS id, u.keycloakId AS keycloakId, u.email AS email, u.role AS role FROM User u WHERE u.email = :email")
+    Optional<UserIdentityView> findIdentityByEmail(@Param("email") String email);
+
+    @Query("SELECT u.id AS id, u.keycloakId AS keycloakId, u.email AS email, u.role AS role FROM User u WHERE u.keycloakId = :keycloakId")
+    Optional<UserIdentityView> findIdentityByKeycloakId(@Param("keycloakId") String keycloakId);
+
+    // Callers pass lower-cased emails; matched against idx_users_email_lower
+    @Query("SELECT u.id AS id, u.keycloakId AS keycloakId, u.email AS email, u.role AS role FROM User u WHERE LOWER(u.email) IN :emails")
+    List<UserIdentityView> findIdentitiesByEmailIn(@Param("emails") Collection<String> emails);
+}
@@ -0,0 +1,35 @@
+package com.coursemanagement.repository.projection;
+
+import com.coursemanagement.entity.Course;
+
+import java.time.ZonedDateTime;
+
+public interface CourseCatalogView {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    Long getInstructorId();
+
+    String getInstructorFirstName();
+
+    String getInstructorLastName();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Course.DifficultyLevel getDifficultyLevel();
+
+    Integer getDurationHours();
+
+    Boolean getIsPublished();
+
+    Long getEnrollmentCount();
+
+    ZonedDateTime getCreatedAt();
+
+    ZonedDateTime getUpdatedAt();
+}
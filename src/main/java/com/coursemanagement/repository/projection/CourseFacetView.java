@@ -0,0 +1,15 @@
+package com.coursemanagement.repository.projection;
+
+public interface CourseFacetView {
+    String getFacet();
+
+    String getDifficultyLevel();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    String getDurationBucket();
+
+    Long getCount();
+}
@@ -0,0 +1,33 @@
+package com.coursemanagement.repository.projection;
+
+import com.coursemanagement.entity.Course;
+
+public interface CourseSearchHitView {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    Long getInstructorId();
+
+    String getInstructorFirstName();
+
+    String getInstructorLastName();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Course.DifficultyLevel getDifficultyLevel();
+
+    Integer getDurationHours();
+
+    Float getRank();
+
+    String getTitleHighlight();
+
+    String getDescriptionHighlight();
+
+    Long getTotal();
+}
@@ -0,0 +1,11 @@
+package com.coursemanagement.repository.projection;
+
+public interface CourseVersionView {
+    Long getCourseVersion();
+
+    Long getCategoryId();
+
+    Long getLessonsVersion();
+
+    Long getEnrollmentsVersion();
+}
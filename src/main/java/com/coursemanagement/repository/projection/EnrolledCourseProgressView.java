@@ -0,0 +1,23 @@
+package com.coursemanagement.repository.projection;
+
+import com.coursemanagement.entity.Course;
+
+import java.time.ZonedDateTime;
+
+public interface EnrolledCourseProgressView {
+    Long getId();
+
+    String getTitle();
+
+    Course.DifficultyLevel getDifficultyLevel();
+
+    Boolean getIsPublished();
+
+    Integer getTotalLessons();
+
+    Integer getCompletedLessons();
+
+    Integer getInProgressLessons();
+
+    ZonedDateTime getLastAccessedAt();
+}
@@ -0,0 +1,23 @@
+package com.coursemanagement.repository.projection;
+
+import com.coursemanagement.entity.LessonProgress;
+
+import java.time.ZonedDateTime;
+
+public interface LessonProgressView {
+    Long getLessonId();
+
+    String getTitle();
+
+    Integer getOrderIndex();
+
+    Long getCourseId();
+
+    LessonProgress.ProgressStatus getStatus();
+
+    ZonedDateTime getCompletedAt();
+
+    ZonedDateTime getLastAccessedAt();
+
+    ZonedDateTime getCreatedAt();
+}
@@ -0,0 +1,11 @@
+package com.coursemanagement.repository.projection;
+
+public interface UserIdentityView {
+    Long getId();
+
+    String getKeycloakId();
+
+    String getEmail();
+
+    String getRole();
+}
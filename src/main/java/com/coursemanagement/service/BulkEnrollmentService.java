@@ -0,0 +1,145 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.dto.CohortEnrollmentDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkEnrollmentService {
+    private final CourseService courseService;
+    private final ObjectMapper objectMapper;
+
+    private record ParsedRow(long line, String email, String error) {
+    }
+
+    /**
+     * Reads one email per CSV row (first column, optional "email" header) or per NDJSON line
+     * ({"email": "..."}) and enrolls them in batches, each batch in its own transaction.
+     */
+    public CohortEnrollmentDto.ImportReportDto importEnrollments(Long courseId, InputStream input, MediaType contentType) {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+        CohortEnrollmentDto.ImportReportDto report = CohortEnrollmentDto.ImportReportDto.builder()
+                .courseId(courseId)
+                .build();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<ParsedRow> batch = new ArrayList<>(CourseService.COHORT_BATCH_SIZE);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1) {
+                    line = stripByteOrderMark(line);
+                }
+                if (line.isBlank() || (!ndjson && lineNumber == 1 && isCsvHeader(line))) {
+                    continue;
+                }
+
+                batch.add(ndjson ? parseNdjsonLine(lineNumber, line) : parseCsvLine(lineNumber, line));
+                if (batch.size() == CourseService.COHORT_BATCH_SIZE) {
+                    enrollBatch(courseId, batch, report);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                enrollBatch(courseId, batch, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read enrollment import", e);
+        }
+
+        log.info("Imported enrollments for course {}: {}", courseId, report.getTotals());
+        return report;
+    }
+
+    private void enrollBatch(Long courseId, List<ParsedRow> batch, CohortEnrollmentDto.ImportReportDto report) {
+        // Rows differing only in case share one lookup and one outcome
+        List<String> emails = batch.stream()
+                .filter(row -> row.error() == null)
+                .map(row -> CourseService.normalizeEmail(row.email()))
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<String, CohortEnrollmentDto.Outcome> outcomes = emails.isEmpty()
+                ? Map.of()
+                : courseService.enrollCohortBatch(courseId, emails);
+
+        for (ParsedRow row : batch) {
+            CohortEnrollmentDto.Outcome outcome = row.error() != null
+                    ? CohortEnrollmentDto.Outcome.INVALID
+                    : outcomes.get(CourseService.normalizeEmail(row.email()));
+
+            report.getRows().add(CohortEnrollmentDto.RowResultDto.builder()
+                    .line(row.line())
+                    .email(row.email())
+                    .outcome(outcome)
+                    .message(row.error())
+                    .build());
+            report.getTotals().merge(outcome, 1L, Long::sum);
+            report.setProcessed(report.getProcessed() + 1);
+        }
+    }
+
+    private ParsedRow parseCsvLine(long lineNumber, String line) {
+        int separator = line.indexOf(',');
+        String email = unquote((separator >= 0 ? line.substring(0, separator) : line).trim());
+        return validate(lineNumber, email);
+    }
+
+    private ParsedRow parseNdjsonLine(long lineNumber, String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return validate(lineNumber, node.path("email").asText(null));
+        } catch (IOException e) {
+            return new ParsedRow(lineNumber, null, "Malformed JSON line");
+        }
+    }
+
+    private ParsedRow validate(long lineNumber, String email) {
+        if (email == null || email.isBlank()) {
+            return new ParsedRow(lineNumber, null, "Missing email");
+        }
+
+        String trimmed = email.trim();
+        int at = trimmed.indexOf('@');
+        if (at <= 0 || at == trimmed.length() - 1) {
+            return new ParsedRow(lineNumber, trimmed, "Invalid email address");
+        }
+        return new ParsedRow(lineNumber, trimmed, null);
+    }
+
+    // Only a first column literally named "email" is a header; anything else is a data row
+    private boolean isCsvHeader(String line) {
+        int separator = line.indexOf(',');
+        String firstColumn = unquote((separator >= 0 ? line.substring(0, separator) : line).trim());
+        return firstColumn.equalsIgnoreCase("email");
+    }
+
+    private String stripByteOrderMark(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+}
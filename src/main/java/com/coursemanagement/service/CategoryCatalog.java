@@ -0,0 +1,138 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.entity.Category;
+import com.coursemanagement.event.CategoryChangedEvent;
+import com.coursemanagement.repository.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the categories table. Readers work against an immutable snapshot that is
+ * replaced wholesale after every category write and on a periodic refresh, which also picks up
+ * writes made by other instances. An id missing from the snapshot is looked up on its own and
+ * merged in; ids that do not exist are remembered for a short while so they cannot force a
+ * database read per request.
+ */
+@Component
+@Slf4j
+public class CategoryCatalog {
+    private final CategoryRepository categoryRepository;
+    private final Cache<Long, Boolean> missingIds;
+    private volatile Snapshot snapshot;
+
+    public CategoryCatalog(
+            CategoryRepository categoryRepository,
+            @Value("${course.categories.miss-ttl:30s}") Duration missTtl
+    ) {
+        this.categoryRepository = categoryRepository;
+        this.missingIds = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(missTtl)
+                .build();
+    }
+
+    public record Entry(Long id, String name, String description, ZonedDateTime createdAt, Long version) {
+    }
+
+    private record Snapshot(Map<Long, Entry> byId, List<Entry> all, String versionTag) {
+        // Count catches deletes, max id catches inserts and the version sum catches updates
+        static Snapshot of(List<Entry> entries) {
+            long maxId = entries.isEmpty() ? 0L : entries.get(entries.size() - 1).id();
+            long versionSum = entries.stream().mapToLong(Entry::version).sum();
+            return new Snapshot(
+                    Map.copyOf(entries.stream().collect(Collectors.toMap(Entry::id, Function.identity()))),
+                    entries,
+                    entries.size() + "." + maxId + "." + versionSum);
+        }
+    }
+
+    public Optional<Entry> find(Long categoryId) {
+        if (categoryId == null) {
+            return Optional.empty();
+        }
+        Entry entry = snapshot().byId().get(categoryId);
+        if (entry == null && missingIds.getIfPresent(categoryId) == null) {
+            // Possibly created on another instance since the last refresh
+            entry = loadOne(categoryId);
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    public List<Entry> all() {
+        return snapshot().all();
+    }
+
+    public String versionTag() {
+        return snapshot().versionTag();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${course.categories.refresh-interval-ms:300000}",
+            initialDelayString = "${course.categories.refresh-interval-ms:300000}")
+    public void refresh() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        reload();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    private Entry loadOne(Long categoryId) {
+        Optional<Entry> loaded = categoryRepository.findById(categoryId).map(CategoryCatalog::toEntry);
+        if (loaded.isEmpty()) {
+            missingIds.put(categoryId, Boolean.TRUE);
+            return null;
+        }
+        merge(loaded.get());
+        return loaded.get();
+    }
+
+    private synchronized void merge(Entry entry) {
+        Map<Long, Entry> byId = new HashMap<>(snapshot().byId());
+        byId.put(entry.id(), entry);
+        snapshot = Snapshot.of(byId.values().stream()
+                .sorted(Comparator.comparing(Entry::id))
+                .toList());
+    }
+
+    private synchronized Snapshot reload() {
+        List<Entry> entries = categoryRepository.findAll(Sort.by("id")).stream()
+                .map(CategoryCatalog::toEntry)
+                .toList();
+
+        Snapshot loaded = Snapshot.of(entries);
+        snapshot = loaded;
+        missingIds.invalidateAll();
+        log.debug("Loaded {} categories", entries.size());
+        return loaded;
+    }
+
+    private static Entry toEntry(Category category) {
+        return new Entry(category.getId(), category.getName(), category.getDescription(),
+                category.getCreatedAt(), category.getVersion());
+    }
+}
@@ -3,11 +3,13 @@ package com.coursemanagement.service;
 import com.coursemanagement.dto.CategoryDto;
 import com.coursemanagement.entity.Category;
 import com.coursemanagement.entity.Course;
+import com.coursemanagement.event.CategoryChangedEvent;
 import com.coursemanagement.exception.CourseEntityNotFoundException;
 import com.coursemanagement.mapper.CategoryMapper;
 import com.coursemanagement.repository.CategoryRepository;
 import com.coursemanagement.repository.CourseRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +22,8 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final CourseRepository courseRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryCatalog categoryCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public CategoryDto createCategory(CategoryDto.CreateCategoryDto createCategoryDto) {
@@ -30,6 +34,7 @@ public class CategoryService {
 
         Category category = categoryMapper.toEntity(createCategoryDto);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
         return categoryMapper.toDto(category);
     }
 
@@ -45,6 +50,7 @@ public class CategoryService {
 
         categoryMapper.updateEntity(category, updateCategoryDto);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
         return categoryMapper.toDto(category);
     }
 
@@ -59,16 +65,27 @@ public class CategoryService {
         }
 
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
+    }
+
+    public String getCategoryVersionTag(Long categoryId) {
+        return categoryCatalog.find(categoryId)
+                .map(entry -> String.valueOf(entry.version()))
+                .orElseThrow(() -> new CourseEntityNotFoundException("Category not found"));
+    }
+
+    public String getCategoriesVersionTag() {
+        return categoryCatalog.versionTag();
     }
 
     public CategoryDto getCategory(Long categoryId) {
-        return categoryRepository.findById(categoryId)
+        return categoryCatalog.find(categoryId)
                 .map(categoryMapper::toDto)
                 .orElseThrow(() -> new CourseEntityNotFoundException("Category not found"));
     }
 
     public List<CategoryDto> getAllCategories() {
-        return categoryRepository.findAll().stream()
+        return categoryCatalog.all().stream()
                 .map(categoryMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -1,22 +1,22 @@
 package com.coursemanagement.service;
 
-import com.coursemanagement.repository.CourseRepository;
+import com.coursemanagement.config.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
 public class CourseAccessValidator {
-    private final CourseRepository courseRepository;
+    private final CourseOwnershipCache courseOwnershipCache;
 
     public boolean isInstructor(Long courseId, Authentication authentication) {
-        Jwt jwt = (Jwt) authentication.getPrincipal();
-        String instructorEmail = jwt.getClaimAsString("email");
+        if (!(authentication.getPrincipal() instanceof CurrentUser currentUser)) {
+            return false;
+        }
 
-        return courseRepository.findById(courseId)
-                .map(course -> course.getInstructor().getEmail().equals(instructorEmail))
+        return courseOwnershipCache.findInstructorId(courseId)
+                .map(instructorId -> instructorId.equals(currentUser.id()))
                 .orElse(false);
     }
 }
@@ -0,0 +1,49 @@
+package com.coursemanagement.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Refreshes the analytics rollups (lesson_funnel_stats and course_activity_stats) so the
+ * instructor analytics endpoint never aggregates lesson_progress on the request path.
+ * A transaction-scoped advisory lock keeps multiple instances from refreshing at the same time.
+ */
+@Component
+@Slf4j
+public class CourseAnalyticsRefresher {
+    private static final long REFRESH_LOCK_KEY = 0x436f75727365414cL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CourseAnalyticsRefresher(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${course.analytics.refresh-interval-ms:600000}",
+            initialDelayString = "${course.analytics.refresh-interval-ms:600000}")
+    public void refresh() {
+        long started = System.currentTimeMillis();
+        Boolean refreshed = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REFRESH_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return false;
+            }
+            // CONCURRENTLY keeps the views readable while they are rebuilt
+            jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY course_management.lesson_funnel_stats");
+            jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY course_management.course_activity_stats");
+            return true;
+        });
+        if (Boolean.TRUE.equals(refreshed)) {
+            log.info("Refreshed course analytics rollups in {} ms", System.currentTimeMillis() - started);
+        } else {
+            log.debug("Skipped course analytics refresh, another instance holds the lock");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.dto.CourseAnalyticsDto;
+import com.coursemanagement.entity.CourseActivityStats;
+import com.coursemanagement.entity.LessonFunnelStats;
+import com.coursemanagement.exception.CourseEntityNotFoundException;
+import com.coursemanagement.repository.CourseActivityStatsRepository;
+import com.coursemanagement.repository.CourseRepository;
+import com.coursemanagement.repository.LessonFunnelStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CourseAnalyticsService {
+    private final CourseRepository courseRepository;
+    private final LessonFunnelStatsRepository lessonFunnelStatsRepository;
+    private final CourseActivityStatsRepository courseActivityStatsRepository;
+
+    @Transactional(readOnly = true)
+    public CourseAnalyticsDto getCourseAnalytics(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new CourseEntityNotFoundException("Course not found");
+        }
+
+        // Courses without enrollments have no activity row until they get one
+        CourseActivityStats activity = courseActivityStatsRepository.findById(courseId).orElse(null);
+        List<LessonFunnelStats> funnel = lessonFunnelStatsRepository.findByCourseIdOrderByOrderIndexAsc(courseId);
+
+        List<CourseAnalyticsDto.LessonFunnelDto> lessons = new ArrayList<>(funnel.size());
+        Long previousCompleted = null;
+        for (LessonFunnelStats stats : funnel) {
+            lessons.add(toLessonFunnelDto(stats, previousCompleted));
+            previousCompleted = valueOf(stats.getCompleted());
+        }
+
+        return CourseAnalyticsDto.builder()
+                .courseId(courseId)
+                .enrolledLearners(activity != null ? valueOf(activity.getEnrolledLearners()) : 0)
+                .completedLearners(activity != null ? valueOf(activity.getCompletedLearners()) : 0)
+                .activeLast7Days(activity != null ? valueOf(activity.getActiveLast7Days()) : 0)
+                .activeLast30Days(activity != null ? valueOf(activity.getActiveLast30Days()) : 0)
+                .refreshedAt(activity != null ? activity.getRefreshedAt()
+                        : funnel.isEmpty() ? null : funnel.get(0).getRefreshedAt())
+                .lessons(lessons)
+                .build();
+    }
+
+    private CourseAnalyticsDto.LessonFunnelDto toLessonFunnelDto(LessonFunnelStats stats, Long previousCompleted) {
+        long enrolled = valueOf(stats.getEnrolledLearners());
+        long inProgress = valueOf(stats.getInProgress());
+        long completed = valueOf(stats.getCompleted());
+        double dropOff = previousCompleted != null && previousCompleted > 0
+                ? Math.max(0, previousCompleted - completed) / (double) previousCompleted
+                : 0;
+
+        return CourseAnalyticsDto.LessonFunnelDto.builder()
+                .lessonId(stats.getLessonId())
+                .title(stats.getTitle())
+                .orderIndex(stats.getOrderIndex())
+                .notStarted(Math.max(0, enrolled - inProgress - completed))
+                .inProgress(inProgress)
+                .completed(completed)
+                .completionRate(enrolled > 0 ? completed / (double) enrolled : 0)
+                .dropOff(dropOff)
+                .medianMinutesToComplete(stats.getMedianSecondsToComplete() != null
+                        ? stats.getMedianSecondsToComplete() / 60 : null)
+                .build();
+    }
+
+    private static long valueOf(Long count) {
+        return count != null ? count : 0;
+    }
+}
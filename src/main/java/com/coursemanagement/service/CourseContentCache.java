@@ -0,0 +1,152 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.dto.CourseDto;
+import com.coursemanagement.dto.LessonDto;
+import com.coursemanagement.event.CategoryChangedEvent;
+import com.coursemanagement.event.CourseChangedEvent;
+import com.coursemanagement.repository.CourseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache for course detail and lesson lists. L1 is a weight-bounded Caffeine cache whose
+ * per-key loading also collapses concurrent misses on a hot key into a single L2/database read;
+ * L2 is an optional {@link SharedCacheStore}. Every entry carries the version tag it was loaded
+ * for, and a lookup with a different tag is a miss, so a response never pairs a fresh ETag with
+ * a stale body, even on instances that have not seen the change. Entries are also evicted after
+ * commit by course and category events, L1 before L2, to free memory early.
+ */
+@Component
+@Slf4j
+public class CourseContentCache {
+    private static final String COURSE_KEY_PREFIX = "course:";
+    private static final String LESSONS_KEY_PREFIX = "lessons:";
+
+    private final CourseRepository courseRepository;
+    private final SharedCacheStore sharedStore;
+    private final Cache<String, Versioned> local;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+
+    public CourseContentCache(
+            CourseRepository courseRepository,
+            ObjectProvider<SharedCacheStore> sharedStore,
+            MeterRegistry meterRegistry,
+            @Value("${course.cache.content.l1.max-weight:200000}") long maxWeight,
+            @Value("${course.cache.content.l1.ttl:10m}") Duration ttl
+    ) {
+        this.courseRepository = courseRepository;
+        this.sharedStore = sharedStore.getIfAvailable();
+        this.local = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, Versioned entry) -> weigh(entry.value()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "courseContent");
+        this.sharedHits = Counter.builder("course.content.cache.l2")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.sharedMisses = Counter.builder("course.content.cache.l2")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        log.info("Course content cache L2: {}", this.sharedStore != null
+                ? this.sharedStore.getClass().getSimpleName() : "disabled");
+    }
+
+    // The loader must read after the version tag was, so a cached value is never older than its tag
+    private record Versioned(String versionTag, Object value) {
+        boolean matches(String tag) {
+            return versionTag.equals(tag);
+        }
+    }
+
+    public CourseDto getCourse(Long courseId, String versionTag, Supplier<CourseDto> loader) {
+        return (CourseDto) get(COURSE_KEY_PREFIX + courseId, versionTag, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<LessonDto> getLessons(Long courseId, String versionTag, Supplier<List<LessonDto>> loader) {
+        return (List<LessonDto>) get(LESSONS_KEY_PREFIX + courseId, versionTag, () -> List.copyOf(loader.get()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        switch (event.change()) {
+            // Course detail embeds the enrolled students but not the lessons list
+            case UPDATED, ENROLLMENTS -> evict(COURSE_KEY_PREFIX + event.courseId());
+            case LESSONS, CREATED, DELETED -> {
+                evict(COURSE_KEY_PREFIX + event.courseId());
+                evict(LESSONS_KEY_PREFIX + event.courseId());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        courseRepository.findIdsByCategoryId(event.categoryId())
+                .forEach(courseId -> evict(COURSE_KEY_PREFIX + courseId));
+    }
+
+    private Object get(String key, String versionTag, Supplier<?> loader) {
+        Versioned cached = local.getIfPresent(key);
+        if (cached != null && cached.matches(versionTag)) {
+            return cached.value();
+        }
+
+        // Missing or stale: compute holds the key's lock, so concurrent misses share one load
+        return local.asMap().compute(key, (k, current) -> current != null && current.matches(versionTag)
+                ? current
+                : load(k, versionTag, loader)).value();
+    }
+
+    private Versioned load(String key, String versionTag, Supplier<?> loader) {
+        if (sharedStore != null) {
+            Versioned shared = sharedStore.get(key)
+                    .filter(Versioned.class::isInstance)
+                    .map(Versioned.class::cast)
+                    .filter(entry -> entry.matches(versionTag))
+                    .orElse(null);
+            if (shared != null) {
+                sharedHits.increment();
+                return shared;
+            }
+            sharedMisses.increment();
+        }
+
+        Versioned loaded = new Versioned(versionTag, loader.get());
+        if (sharedStore != null && loaded.value() != null) {
+            sharedStore.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private void evict(String key) {
+        local.invalidate(key);
+        if (sharedStore != null) {
+            sharedStore.evict(key);
+        }
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof CourseDto course) {
+            return 1 + course.getLessons().size() + course.getEnrolledStudents().size();
+        }
+        if (value instanceof List<?> lessons) {
+            return Math.max(1, lessons.size());
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.repository.CourseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class CourseOwnershipCache {
+    private final CourseRepository courseRepository;
+    private final Cache<Long, Long> instructorIds;
+
+    public CourseOwnershipCache(
+            CourseRepository courseRepository,
+            @Value("${course.cache.ownership.max-size:10000}") long maxSize,
+            @Value("${course.cache.ownership.ttl:1h}") Duration ttl
+    ) {
+        this.courseRepository = courseRepository;
+        this.instructorIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<Long> findInstructorId(Long courseId) {
+        return Optional.ofNullable(instructorIds.get(courseId,
+                id -> courseRepository.findInstructorIdById(id).orElse(null)));
+    }
+
+    public void evict(Long courseId) {
+        instructorIds.invalidate(courseId);
+    }
+}
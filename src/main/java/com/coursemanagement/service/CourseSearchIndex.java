@@ -0,0 +1,461 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.dto.CourseCatalogDto;
+import com.coursemanagement.dto.CourseFilterDto;
+import com.coursemanagement.dto.CourseSearchDto;
+import com.coursemanagement.entity.Course;
+import com.coursemanagement.event.CategoryChangedEvent;
+import com.coursemanagement.event.CourseChangedEvent;
+import com.coursemanagement.mapper.CourseMapper;
+import com.coursemanagement.repository.CourseRepository;
+import com.coursemanagement.repository.projection.CourseCatalogView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process inverted index over the course catalog, answering exact-mode search and
+ * filter requests without a database round-trip. Readers see an immutable term dictionary
+ * (sorted terms with sorted {@code long[]} posting lists) that writers replace when a change
+ * adds or removes terms.
+ * <p>
+ * Terms are lower-cased words with no stemming or stop-word removal, so results can differ
+ * from the SQL path's {@code to_tsquery('english', ...)}: "courses" does not match "course",
+ * and stop words such as "the" must appear in the text.
+ */
+@Component
+@Slf4j
+public class CourseSearchIndex {
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Same relative weights ts_rank gives to A (title), B (description) and C (names)
+    private static final float TITLE_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 0.4f;
+    private static final float NAME_WEIGHT = 0.2f;
+
+    private final CourseRepository courseRepository;
+    private final CourseMapper courseMapper;
+    private final boolean enabled;
+
+    private final Map<Long, IndexedCourse> courses = new ConcurrentHashMap<>();
+    private final TreeMap<String, long[]> postings = new TreeMap<>();
+    private volatile TermDictionary dictionary = new TermDictionary(new String[0], new long[0][]);
+    private volatile boolean ready;
+
+    public CourseSearchIndex(
+            CourseRepository courseRepository,
+            CourseMapper courseMapper,
+            @Value("${course.search.in-memory.enabled:false}") boolean enabled
+    ) {
+        this.courseRepository = courseRepository;
+        this.courseMapper = courseMapper;
+        this.enabled = enabled;
+    }
+
+    private record IndexedCourse(CourseCatalogDto course, String[] titleTerms, String[] descriptionTerms,
+                                 String[] nameTerms) {
+        Set<String> allTerms() {
+            Set<String> terms = new HashSet<>();
+            terms.addAll(Arrays.asList(titleTerms));
+            terms.addAll(Arrays.asList(descriptionTerms));
+            terms.addAll(Arrays.asList(nameTerms));
+            return terms;
+        }
+    }
+
+    private record ScoredCourse(IndexedCourse indexed, float score) {
+    }
+
+    private record TermDictionary(String[] terms, long[][] postings) {
+        long[] prefixMatches(String prefix) {
+            int from = lowerBound(terms, prefix);
+            int to = from;
+            while (to < terms.length && terms[to].startsWith(prefix)) {
+                to++;
+            }
+
+            if (to - from == 1) {
+                return postings[from];
+            }
+            return IntStream.range(from, to)
+                    .mapToObj(i -> postings[i])
+                    .flatMapToLong(LongStream::of)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        Map<Long, IndexedCourse> loaded = new HashMap<>();
+        long afterId = 0L;
+        List<CourseCatalogView> batch;
+        do {
+            batch = courseRepository.findCatalogPage(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (CourseCatalogView view : batch) {
+                loaded.put(view.getId(), toIndexed(view));
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        Map<String, List<Long>> idsByTerm = new HashMap<>();
+        loaded.forEach((id, indexed) -> indexed.allTerms()
+                .forEach(term -> idsByTerm.computeIfAbsent(term, t -> new ArrayList<>()).add(id)));
+
+        courses.clear();
+        courses.putAll(loaded);
+        postings.clear();
+        idsByTerm.forEach((term, ids) -> postings.put(term, ids.stream().mapToLong(Long::longValue).sorted().toArray()));
+        publish();
+        ready = true;
+        log.info("Indexed {} courses with {} terms", courses.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        // Lessons are not part of the catalog projection
+        if (!enabled || event.change() == CourseChangedEvent.Change.LESSONS) {
+            return;
+        }
+
+        if (event.change() == CourseChangedEvent.Change.DELETED) {
+            apply(Collections.singletonMap(event.courseId(), null));
+        } else {
+            reload(List.of(event.courseId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        reload(courses.values().stream()
+                .map(IndexedCourse::course)
+                .filter(course -> event.categoryId().equals(course.getCategoryId()))
+                .map(CourseCatalogDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    public CourseSearchDto.SearchPageDto search(String query, String category, String instructor,
+                                                int page, int pageSize) {
+        String[] queryTerms = tokenize(query);
+
+        Stream<IndexedCourse> candidates;
+        if (queryTerms.length == 0) {
+            candidates = courses.values().stream();
+        } else {
+            TermDictionary terms = dictionary;
+            long[] ids = null;
+            for (String term : queryTerms) {
+                long[] matches = terms.prefixMatches(term);
+                ids = ids == null ? matches : intersect(ids, matches);
+                if (ids.length == 0) {
+                    break;
+                }
+            }
+            candidates = LongStream.of(ids).mapToObj(courses::get).filter(Objects::nonNull);
+        }
+
+        List<ScoredCourse> matches = candidates
+                .filter(indexed -> containsIgnoreCase(indexed.course().getCategoryName(), category))
+                .filter(indexed -> containsIgnoreCase(indexed.course().getInstructorName(), instructor))
+                .map(indexed -> new ScoredCourse(indexed, score(indexed, queryTerms)))
+                .sorted(Comparator.comparingDouble((ScoredCourse scored) -> scored.score()).reversed()
+                        .thenComparing(scored -> scored.indexed().course().getId()))
+                .collect(Collectors.toList());
+
+        Pattern highlight = highlightPattern(queryTerms);
+        List<CourseSearchDto> items = matches.stream()
+                .skip((long) page * pageSize)
+                .limit(pageSize)
+                .map(scored -> courseMapper.toSearchDto(scored.indexed().course(), scored.score(),
+                        highlight(scored.indexed().course().getTitle(), highlight),
+                        highlight(scored.indexed().course().getDescription(), highlight)))
+                .collect(Collectors.toList());
+
+        return CourseSearchDto.SearchPageDto.builder()
+                .items(items)
+                .page(page)
+                .size(items.size())
+                .total(matches.size())
+                .build();
+    }
+
+    public CourseFilterDto.FilterPageDto filter(CourseFilterDto filter, int page, int pageSize) {
+        Set<Long> categoryIds = filter.getCategoryIds() != null ? Set.copyOf(filter.getCategoryIds()) : Set.of();
+        Set<Course.DifficultyLevel> difficultyLevels = filter.getDifficultyLevels() != null
+                ? Set.copyOf(filter.getDifficultyLevels())
+                : Set.of();
+
+        List<CourseCatalogDto> matches = courses.values().stream()
+                .map(IndexedCourse::course)
+                .filter(course -> categoryIds.isEmpty() || categoryIds.contains(course.getCategoryId()))
+                .filter(course -> filter.getInstructorId() == null || filter.getInstructorId().equals(course.getInstructorId()))
+                .filter(course -> filter.getPublished() == null
+                        || filter.getPublished().equals(Boolean.TRUE.equals(course.getIsPublished())))
+                .filter(course -> difficultyLevels.isEmpty() || difficultyLevels.contains(course.getDifficultyLevel()))
+                .filter(course -> filter.getMinDuration() == null
+                        || (course.getDurationHours() != null && course.getDurationHours() >= filter.getMinDuration()))
+                .filter(course -> filter.getMaxDuration() == null
+                        || (course.getDurationHours() != null && course.getDurationHours() <= filter.getMaxDuration()))
+                .collect(Collectors.toList());
+
+        CourseFilterDto.FacetsDto facets = courseMapper.emptyFacets();
+        Map<Long, CourseFilterDto.CategoryFacetDto> categoryFacets = new HashMap<>();
+        for (CourseCatalogDto course : matches) {
+            if (course.getDifficultyLevel() != null) {
+                facets.getDifficultyLevels().merge(course.getDifficultyLevel(), 1L, Long::sum);
+            }
+            CourseFilterDto.DurationBucket bucket = CourseFilterDto.DurationBucket.of(course.getDurationHours());
+            if (bucket != null) {
+                facets.getDurations().merge(bucket, 1L, Long::sum);
+            }
+            CourseFilterDto.CategoryFacetDto categoryFacet = categoryFacets.computeIfAbsent(course.getCategoryId(),
+                    id -> CourseFilterDto.CategoryFacetDto.builder()
+                            .categoryId(id)
+                            .categoryName(course.getCategoryName())
+                            .build());
+            categoryFacet.setCount(categoryFacet.getCount() + 1);
+        }
+        facets.setCategories(categoryFacets.values().stream()
+                .sorted(Comparator.comparingLong(CourseFilterDto.CategoryFacetDto::getCount).reversed()
+                        .thenComparing(CourseFilterDto.CategoryFacetDto::getCategoryName,
+                                Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList()));
+
+        List<CourseCatalogDto> items = matches.stream()
+                .sorted(filterOrder(filter.getSort()))
+                .skip((long) page * pageSize)
+                .limit(pageSize)
+                .collect(Collectors.toList());
+
+        return CourseFilterDto.FilterPageDto.builder()
+                .items(items)
+                .page(page)
+                .size(items.size())
+                .total(matches.size())
+                .facets(facets)
+                .build();
+    }
+
+    // Reads under the lock, so a slower read of older state can never overwrite a newer one
+    private synchronized void reload(List<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, CourseCatalogView> views = courseRepository.findCatalogEntries(courseIds).stream()
+                .collect(Collectors.toMap(CourseCatalogView::getId, view -> view));
+        Map<Long, IndexedCourse> replacements = new HashMap<>();
+        courseIds.forEach(id -> replacements.put(id, views.containsKey(id) ? toIndexed(views.get(id)) : null));
+        apply(replacements);
+    }
+
+    // A null replacement removes the course; the dictionary is republished once, and only if terms changed
+    private synchronized void apply(Map<Long, IndexedCourse> replacements) {
+        boolean termsChanged = false;
+        for (Map.Entry<Long, IndexedCourse> replacement : replacements.entrySet()) {
+            termsChanged |= applyOne(replacement.getKey(), replacement.getValue());
+        }
+        if (termsChanged) {
+            publish();
+        }
+    }
+
+    private boolean applyOne(Long courseId, IndexedCourse replacement) {
+        IndexedCourse previous = replacement == null ? courses.remove(courseId) : courses.put(courseId, replacement);
+        Set<String> oldTerms = previous != null ? previous.allTerms() : Set.of();
+        Set<String> newTerms = replacement != null ? replacement.allTerms() : Set.of();
+        if (oldTerms.equals(newTerms)) {
+            // Enrollment counts and other catalog fields are read from the courses map
+            return false;
+        }
+
+        for (String term : oldTerms) {
+            if (!newTerms.contains(term)) {
+                postings.computeIfPresent(term, (t, ids) -> {
+                    long[] remaining = LongStream.of(ids).filter(id -> id != courseId).toArray();
+                    return remaining.length == 0 ? null : remaining;
+                });
+            }
+        }
+        for (String term : newTerms) {
+            if (!oldTerms.contains(term)) {
+                postings.merge(term, new long[]{courseId}, (ids, added) ->
+                        LongStream.concat(LongStream.of(ids), LongStream.of(added)).sorted().distinct().toArray());
+            }
+        }
+        return true;
+    }
+
+    private void publish() {
+        dictionary = new TermDictionary(
+                postings.keySet().toArray(new String[0]),
+                postings.values().toArray(new long[0][]));
+    }
+
+    private IndexedCourse toIndexed(CourseCatalogView view) {
+        CourseCatalogDto course = courseMapper.toCatalogDto(view);
+        return new IndexedCourse(
+                course,
+                tokenize(course.getTitle()),
+                tokenize(course.getDescription()),
+                tokenize(Objects.toString(course.getCategoryName(), "") + " "
+                        + Objects.toString(course.getInstructorName(), "")));
+    }
+
+    // Mirrors CourseService.toSort so both paths page identically
+    private static Comparator<CourseCatalogDto> filterOrder(CourseFilterDto.SortKey sortKey) {
+        Comparator<CourseCatalogDto> byId = Comparator.comparing(CourseCatalogDto::getId);
+        return switch (Objects.requireNonNullElse(sortKey, CourseFilterDto.SortKey.NEWEST)) {
+            case NEWEST -> Comparator.comparing(CourseCatalogDto::getCreatedAt,
+                            Comparator.nullsLast(Comparator.<ZonedDateTime>naturalOrder()))
+                    .thenComparing(byId).reversed();
+            case TITLE -> Comparator.comparing(CourseCatalogDto::getTitle).thenComparing(byId);
+            case SHORTEST -> Comparator.comparing(CourseCatalogDto::getDurationHours,
+                    Comparator.nullsLast(Comparator.<Integer>naturalOrder())).thenComparing(byId);
+            case LONGEST -> Comparator.comparing(CourseCatalogDto::getDurationHours,
+                    Comparator.nullsLast(Comparator.<Integer>reverseOrder())).thenComparing(byId);
+            case MOST_ENROLLED -> Comparator.comparingLong(CourseCatalogDto::getEnrollmentCount).reversed()
+                    .thenComparing(byId);
+        };
+    }
+
+    private static float score(IndexedCourse indexed, String[] queryTerms) {
+        float score = 0f;
+        for (String term : queryTerms) {
+            if (hasPrefix(indexed.titleTerms(), term)) {
+                score += TITLE_WEIGHT;
+            }
+            if (hasPrefix(indexed.descriptionTerms(), term)) {
+                score += DESCRIPTION_WEIGHT;
+            }
+            if (hasPrefix(indexed.nameTerms(), term)) {
+                score += NAME_WEIGHT;
+            }
+        }
+        return score;
+    }
+
+    private static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+
+        return TOKEN_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    private static boolean hasPrefix(String[] sortedTerms, String prefix) {
+        int index = lowerBound(sortedTerms, prefix);
+        return index < sortedTerms.length && sortedTerms[index].startsWith(prefix);
+    }
+
+    private static int lowerBound(String[] sortedTerms, String key) {
+        int index = Arrays.binarySearch(sortedTerms, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static boolean containsIgnoreCase(String value, String filter) {
+        if (filter == null) {
+            return true;
+        }
+        return value != null && value.toLowerCase(Locale.ROOT).contains(filter.toLowerCase(Locale.ROOT));
+    }
+
+    private static Pattern highlightPattern(String[] queryTerms) {
+        if (queryTerms.length == 0) {
+            return null;
+        }
+
+        String alternatives = Arrays.stream(queryTerms)
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"));
+        return Pattern.compile("(?<![\\p{L}\\p{N}])((?:" + alternatives + ")[\\p{L}\\p{N}]*)",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    // Escapes the text around and inside each match, so <mark> is the only markup in the result
+    private static String highlight(String text, Pattern highlight) {
+        if (text == null) {
+            return null;
+        }
+        if (highlight == null) {
+            return HtmlUtils.htmlEscape(text);
+        }
+
+        Matcher matcher = highlight.matcher(text);
+        StringBuilder highlighted = new StringBuilder(text.length() + 16);
+        int last = 0;
+        while (matcher.find()) {
+            highlighted.append(HtmlUtils.htmlEscape(text.substring(last, matcher.start())))
+                    .append("<mark>")
+                    .append(HtmlUtils.htmlEscape(matcher.group(1)))
+                    .append("</mark>");
+            last = matcher.end();
+        }
+        return highlighted.append(HtmlUtils.htmlEscape(text.substring(last))).toString();
+    }
+}
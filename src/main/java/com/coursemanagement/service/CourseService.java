@@ -1,37 +1,70 @@
 package com.coursemanagement.service;
 
+import com.coursemanagement.dto.CohortEnrollmentDto;
+import com.coursemanagement.dto.CourseCatalogDto;
 import com.coursemanagement.dto.CourseDto;
+import com.coursemanagement.dto.CourseFilterDto;
+import com.coursemanagement.dto.CourseSearchDto;
 import com.coursemanagement.dto.CourseSimpleDto;
 import com.coursemanagement.entity.Category;
 import com.coursemanagement.entity.Course;
-import com.coursemanagement.entity.LessonProgress;
 import com.coursemanagement.entity.User;
+import com.coursemanagement.event.CourseChangedEvent;
 import com.coursemanagement.exception.CourseEntityNotFoundException;
 import com.coursemanagement.mapper.CourseMapper;
 import com.coursemanagement.repository.CategoryRepository;
 import com.coursemanagement.repository.CourseRepository;
-import com.coursemanagement.repository.LessonProgressRepository;
+import com.coursemanagement.repository.EnrollmentRepository;
+import com.coursemanagement.repository.LessonRepository;
 import com.coursemanagement.repository.UserRepository;
+import com.coursemanagement.repository.projection.CourseCatalogView;
+import com.coursemanagement.repository.projection.CourseFacetView;
+import com.coursemanagement.repository.projection.CourseSearchHitView;
+import com.coursemanagement.repository.projection.UserIdentityView;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CourseService {
+    private static final int MAX_CATALOG_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    public static final int COHORT_BATCH_SIZE = 1000;
+    private static final String STUDENT_ROLE = "STUDENT";
+
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final CourseRepository courseRepository;
-    private final LessonProgressRepository lessonProgressRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final LessonRepository lessonRepository;
     private final LessonProgressService lessonProgressService;
     private final CourseMapper courseMapper;
+    private final CourseOwnershipCache courseOwnershipCache;
+    private final CourseSearchIndex courseSearchIndex;
+    private final CourseContentCache courseContentCache;
+    private final CategoryCatalog categoryCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
-    public CourseDto createCourse(CourseDto.CreateCourseDto createCourseDto, String instructorEmail) {
-        User instructor = userRepository.findByEmail(instructorEmail)
+    public CourseDto createCourse(CourseDto.CreateCourseDto createCourseDto, Long instructorId) {
+        User instructor = userRepository.findById(instructorId)
                 .orElseThrow(() -> new CourseEntityNotFoundException("Instructor not found"));
 
         Category category = categoryRepository.findById(createCourseDto.getCategoryId())
@@ -43,6 +76,7 @@ public class CourseService {
         course.setIsPublished(false);
 
         courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(course.getId(), CourseChangedEvent.Change.CREATED));
         return courseMapper.toDto(course);
     }
 
@@ -59,6 +93,7 @@ public class CourseService {
 
         courseMapper.updateEntity(course, updateCourseDto);
         courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.UPDATED));
         return courseMapper.toDto(course);
     }
 
@@ -69,6 +104,7 @@ public class CourseService {
 
         course.setIsPublished(true);
         courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.UPDATED));
         return courseMapper.toDto(course);
     }
 
@@ -77,113 +113,284 @@ public class CourseService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new CourseEntityNotFoundException("Course not found"));
         courseRepository.delete(course);
+        courseOwnershipCache.evict(courseId);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.DELETED));
     }
 
-    public CourseDto getCourse(Long courseId) {
-        return courseRepository.findById(courseId)
-                .map(courseMapper::toDto)
+    // Covers lessons, enrolled students and the category too, since CourseDto embeds them
+    public String getCourseVersionTag(Long courseId) {
+        return courseRepository.findVersionById(courseId)
+                .map(version -> version.getCourseVersion()
+                        + "." + version.getLessonsVersion()
+                        + "." + version.getEnrollmentsVersion()
+                        + "." + categoryCatalog.find(version.getCategoryId())
+                        .map(CategoryCatalog.Entry::version)
+                        .orElse(0L))
                 .orElseThrow(() -> new CourseEntityNotFoundException("Course not found"));
     }
 
-    public List<CourseDto> getAllCourses() {
-        return courseRepository.findAll().stream()
+    public CourseDto getCourse(Long courseId, String versionTag) {
+        return courseContentCache.getCourse(courseId, versionTag, () -> courseRepository.findDetailedById(courseId)
                 .map(courseMapper::toDto)
-                .collect(Collectors.toList());
+                .orElseThrow(() -> new CourseEntityNotFoundException("Course not found")));
     }
 
-    public List<CourseDto> getCoursesByInstructor(String instructorEmail) {
-        User instructor = userRepository.findByEmail(instructorEmail)
-                .orElseThrow(() -> new CourseEntityNotFoundException("Instructor not found"));
+    public CourseCatalogDto.CatalogPageDto getCourseCatalog(Long cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CATALOG_PAGE_SIZE);
+
+        // Fetch one extra row to find out whether another page follows without a count query
+        List<CourseCatalogView> rows = courseRepository.findCatalogPage(
+                cursor != null ? cursor : 0L, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+
+        List<CourseCatalogDto> items = rows.stream()
+                .limit(pageSize)
+                .map(courseMapper::toCatalogDto)
+                .collect(Collectors.toList());
 
-        return courseRepository.findByInstructor(instructor).stream()
+        return CourseCatalogDto.CatalogPageDto.builder()
+                .items(items)
+                .size(items.size())
+                .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    public List<CourseDto> getCoursesByInstructor(Long instructorId) {
+        return courseRepository.findByInstructorId(instructorId).stream()
                 .map(courseMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Transactional
-    public void enrollInCourse(Long courseId, String studentEmail) {
-        User student = userRepository.findByEmail(studentEmail)
-                .orElseThrow(() -> new CourseEntityNotFoundException("Student not found"));
+    public void enrollInCourse(Long courseId, Long studentId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new CourseEntityNotFoundException("Course not found"));
 
-        if (!course.getIsPublished()) {
-            throw new IllegalStateException("Cannot enroll in an unpublished course");
+        validateEnrollable(course);
+
+        List<Long> studentIds = List.of(studentId);
+        if (enrollmentRepository.enrollStudents(courseId, studentIds) > 0) {
+            lessonProgressService.initializeLessonProgressForCourse(studentIds, courseId);
+            courseRepository.incrementEnrollmentsVersion(courseId);
+            eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.ENROLLMENTS));
         }
-        course.getLessons()
-                .forEach(lesson -> {
-                    if (!lesson.getIsPublished()) {
-                        throw new IllegalStateException("Cannot enroll in a course with unpublished lesson");
-                    }
-                });
+    }
 
-        student.enrollInCourse(course);
-        userRepository.save(student);
+    @Transactional
+    public CohortEnrollmentDto enrollCohort(Long courseId, Collection<String> studentEmails) {
+        List<String> emails = studentEmails.stream()
+                .filter(Objects::nonNull)
+                .map(CourseService::normalizeEmail)
+                .filter(email -> !email.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
 
-        lessonProgressService.initializeLessonProgressForCourse(student, course);
+        CohortEnrollmentDto result = CohortEnrollmentDto.builder()
+                .courseId(courseId)
+                .requested(emails.size())
+                .build();
+
+        for (int from = 0; from < emails.size(); from += COHORT_BATCH_SIZE) {
+            List<String> batch = emails.subList(from, Math.min(from + COHORT_BATCH_SIZE, emails.size()));
+            enrollCohortBatch(courseId, batch).forEach((email, outcome) -> {
+                switch (outcome) {
+                    case ENROLLED -> result.setEnrolled(result.getEnrolled() + 1);
+                    case ALREADY_ENROLLED -> result.setAlreadyEnrolled(result.getAlreadyEnrolled() + 1);
+                    case UNKNOWN_USER -> result.getUnknownEmails().add(email);
+                    default -> result.getIneligibleEmails().add(email);
+                }
+            });
+        }
+        return result;
     }
 
     @Transactional
-    public void unEnrollFromCourse(Long courseId, String studentEmail) {
-        User student = userRepository.findByEmail(studentEmail)
-                .orElseThrow(() -> new CourseEntityNotFoundException("Student not found"));
+    public Map<String, CohortEnrollmentDto.Outcome> enrollCohortBatch(Long courseId, List<String> emails) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new CourseEntityNotFoundException("Course not found"));
 
-        student.unenrollFromCourse(course);
-        userRepository.save(student);
+        validateEnrollable(course);
+
+        Map<String, UserIdentityView> usersByEmail = userRepository.findIdentitiesByEmailIn(
+                        emails.stream().map(CourseService::normalizeEmail).distinct().collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(user -> normalizeEmail(user.getEmail()), Function.identity(),
+                        (first, second) -> first));
+
+        Map<String, CohortEnrollmentDto.Outcome> outcomes = new LinkedHashMap<>();
+        Map<Long, String> studentEmailsById = new LinkedHashMap<>();
+        for (String email : emails) {
+            UserIdentityView user = usersByEmail.get(normalizeEmail(email));
+            if (user == null) {
+                outcomes.put(email, CohortEnrollmentDto.Outcome.UNKNOWN_USER);
+            } else if (!STUDENT_ROLE.equals(user.getRole())) {
+                outcomes.put(email, CohortEnrollmentDto.Outcome.NOT_A_STUDENT);
+            } else {
+                studentEmailsById.put(user.getId(), email);
+            }
+        }
+        if (studentEmailsById.isEmpty()) {
+            return outcomes;
+        }
+
+        Set<Long> alreadyEnrolled = new HashSet<>(
+                enrollmentRepository.findEnrolledUserIds(courseId, studentEmailsById.keySet()));
+        List<Long> newStudentIds = new ArrayList<>();
+        studentEmailsById.forEach((studentId, email) -> {
+            if (alreadyEnrolled.contains(studentId)) {
+                outcomes.put(email, CohortEnrollmentDto.Outcome.ALREADY_ENROLLED);
+            } else {
+                outcomes.put(email, CohortEnrollmentDto.Outcome.ENROLLED);
+                newStudentIds.add(studentId);
+            }
+        });
+
+        if (!newStudentIds.isEmpty()) {
+            enrollmentRepository.enrollStudents(courseId, newStudentIds);
+            lessonProgressService.initializeLessonProgressForCourse(newStudentIds, courseId);
+            courseRepository.incrementEnrollmentsVersion(courseId);
+            eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.ENROLLMENTS));
+        }
+        return outcomes;
+    }
+
+    private void validateEnrollable(Course course) {
+        if (!course.getIsPublished()) {
+            throw new IllegalStateException("Cannot enroll in an unpublished course");
+        }
+        if (lessonRepository.existsByCourseIdAndIsPublishedFalse(course.getId())) {
+            throw new IllegalStateException("Cannot enroll in a course with unpublished lesson");
+        }
+    }
+
+    @Transactional
+    public void unEnrollFromCourse(Long courseId, Long studentId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new CourseEntityNotFoundException("Course not found");
+        }
+
+        if (enrollmentRepository.unenroll(studentId, courseId) > 0) {
+            courseRepository.incrementEnrollmentsVersion(courseId);
+            eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.ENROLLMENTS));
+        }
     }
 
-    public List<CourseSimpleDto> getEnrolledCourses(String studentEmail) {
-        User student = userRepository.findByEmail(studentEmail)
-                .orElseThrow(() -> new CourseEntityNotFoundException("Student not found"));
+    public List<CourseSimpleDto> getEnrolledCourses(Long studentId) {
+        return courseRepository.findEnrolledCourseProgress(studentId).stream()
+                .map(courseMapper::toSimpleDto)
+                .collect(Collectors.toList());
+    }
 
-        return student.getEnrolledCourses().stream()
-                .map(course -> {
-                    CourseSimpleDto courseDto = courseMapper.toSimpleDto(course);
+    public CourseSearchDto.SearchPageDto searchCourses(String query, String category, String instructor,
+                                                       CourseSearchDto.Mode mode, int page, int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
 
-                    List<LessonProgress> progressList = lessonProgressRepository
-                            .findByUserIdAndCourseId(student.getId(), course.getId());
+        if (mode != CourseSearchDto.Mode.FUZZY && courseSearchIndex.isReady()) {
+            return courseSearchIndex.search(query, blankToNull(category), blankToNull(instructor), pageNumber, pageSize);
+        }
 
-                    int totalLessons = progressList.size();
-                    int completedLessons = (int) progressList.stream()
-                            .filter(lp -> lp.getStatus() == LessonProgress.ProgressStatus.COMPLETED)
-                            .count();
+        String tsQuery = toPrefixTsQuery(query);
+        List<CourseSearchHitView> hits = mode == CourseSearchDto.Mode.FUZZY
+                ? courseRepository.searchCoursesFuzzy(tsQuery, blankToNull(category), blankToNull(instructor),
+                pageSize, pageNumber * pageSize)
+                : courseRepository.searchCourses(tsQuery, blankToNull(category), blankToNull(instructor),
+                pageSize, pageNumber * pageSize);
+
+        return CourseSearchDto.SearchPageDto.builder()
+                .items(hits.stream()
+                        .map(courseMapper::toSearchDto)
+                        .collect(Collectors.toList()))
+                .page(pageNumber)
+                .size(hits.size())
+                .total(hits.isEmpty() ? 0 : hits.get(0).getTotal())
+                .build();
+    }
 
-                    double progressPercentage = totalLessons > 0
-                            ? (completedLessons * 100.0 / totalLessons)
-                            : 0.0;
+    @Transactional(readOnly = true)
+    public CourseFilterDto.FilterPageDto filterCourses(CourseFilterDto filter, int page, int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_CATALOG_PAGE_SIZE);
 
-                    courseDto.setProgress(CourseSimpleDto.CourseProgressDto.builder()
-                            .totalLessons(totalLessons)
-                            .completedLessons(completedLessons)
-                            .progressPercentage(progressPercentage)
-                            .build());
+        if (filter.getMinDuration() != null && filter.getMaxDuration() != null
+                && filter.getMinDuration() > filter.getMaxDuration()) {
+            throw new IllegalArgumentException("minDuration must not be greater than maxDuration");
+        }
 
-                    return courseDto;
-                })
+        if (courseSearchIndex.isReady()) {
+            return courseSearchIndex.filter(filter, pageNumber, pageSize);
+        }
+
+        boolean anyCategory = isEmpty(filter.getCategoryIds());
+        boolean anyDifficulty = isEmpty(filter.getDifficultyLevels());
+        List<Long> categoryIds = anyCategory ? List.of(-1L) : filter.getCategoryIds();
+        List<Course.DifficultyLevel> difficultyLevels = anyDifficulty
+                ? Arrays.asList(Course.DifficultyLevel.values())
+                : filter.getDifficultyLevels();
+
+        List<CourseFacetView> facetRows = courseRepository.findFilterFacets(anyCategory, categoryIds,
+                filter.getInstructorId(), filter.getPublished(), anyDifficulty,
+                difficultyLevels.stream().map(Enum::name).collect(Collectors.toList()),
+                filter.getMinDuration(), filter.getMaxDuration());
+        long total = facetRows.stream()
+                .filter(row -> "TOTAL".equals(row.getFacet()))
+                .mapToLong(CourseFacetView::getCount)
+                .findFirst()
+                .orElse(0L);
+
+        List<CourseCatalogDto> items = total <= (long) pageNumber * pageSize
+                ? List.of()
+                : courseRepository.filterCatalog(anyCategory, categoryIds, filter.getInstructorId(),
+                        filter.getPublished(), anyDifficulty, difficultyLevels,
+                        filter.getMinDuration(), filter.getMaxDuration(),
+                        PageRequest.of(pageNumber, pageSize, toSort(filter.getSort()))).stream()
+                .map(courseMapper::toCatalogDto)
                 .collect(Collectors.toList());
+
+        return CourseFilterDto.FilterPageDto.builder()
+                .items(items)
+                .page(pageNumber)
+                .size(items.size())
+                .total(total)
+                .facets(courseMapper.toFacetsDto(facetRows))
+                .build();
+    }
+
+    // Sorts on select aliases of the catalog projection, with id as a stable tie-breaker
+    private static Sort toSort(CourseFilterDto.SortKey sortKey) {
+        return switch (Objects.requireNonNullElse(sortKey, CourseFilterDto.SortKey.NEWEST)) {
+            case NEWEST -> Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+            case TITLE -> Sort.by(Sort.Order.asc("title"), Sort.Order.asc("id"));
+            case SHORTEST -> Sort.by(Sort.Order.asc("durationHours").nullsLast(), Sort.Order.asc("id"));
+            case LONGEST -> Sort.by(Sort.Order.desc("durationHours").nullsLast(), Sort.Order.asc("id"));
+            case MOST_ENROLLED -> Sort.by(Sort.Order.desc("enrollmentCount"), Sort.Order.asc("id"));
+        };
     }
 
-    public List<CourseDto> searchCourses(String title, String category, String instructor) {
-        String firstName = null;
-        String lastName = null;
+    private static boolean isEmpty(Collection<?> values) {
+        return values == null || values.isEmpty();
+    }
 
-        if (instructor != null) {
-            String[] parts = instructor.split(" ");
-            firstName = parts[0];
-            lastName = parts[1];
+    // "intro pyth" -> "intro:* & pyth:*", keeping only word characters so user input cannot break to_tsquery
+    static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return null;
         }
-        List<Course> courses = courseRepository.searchCourses(title, category, firstName, lastName);
-        return courses.stream()
-                .map(courseMapper::toDto)
-                .collect(Collectors.toList());
+
+        String tsQuery = Arrays.stream(query.split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term.toLowerCase(Locale.ROOT) + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
     }
 
-    public List<CourseDto> filterCourses(Course.DifficultyLevel difficultyLevel, Integer duration) {
-        List<Course> courses = courseRepository.filterCourses(difficultyLevel, duration);
-        return courses.stream()
-                .map(courseMapper::toDto)
-                .collect(Collectors.toList());
+    // Emails are matched case-insensitively
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 }
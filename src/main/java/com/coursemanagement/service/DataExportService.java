@@ -0,0 +1,236 @@
+package com.coursemanagement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams courses, enrollment progress and lesson progress as NDJSON or CSV straight from a
+ * server-side cursor, so memory use does not depend on the number of rows. Incremental exports
+ * select rows with {@code updated_at} in ({@code since}, {@code until}]; callers pass the
+ * returned high-water mark as the next {@code since}. Deleted rows are not reported.
+ */
+@Service
+@Slf4j
+public class DataExportService {
+    private static final String COURSES_SQL = """
+            SELECT c.id, c.title, c.description, c.instructor_id, c.category_id, c.difficulty_level,
+                   c.duration_hours, c.is_published, c.created_at, c.updated_at
+            FROM course_management.courses c
+            WHERE c.updated_at <= ? %s
+            ORDER BY c.updated_at, c.id
+            """;
+    private static final String ENROLLMENTS_SQL = """
+            SELECT ep.user_id, u.email, ep.course_id, e.enrolled_at, ep.total_lessons, ep.completed_lessons,
+                   ep.in_progress_lessons, ep.last_accessed_at, ep.updated_at
+            FROM course_management.enrollment_progress ep
+            JOIN course_management.enrollments e ON e.user_id = ep.user_id AND e.course_id = ep.course_id
+            JOIN course_management.users u ON u.id = ep.user_id
+            WHERE ep.updated_at <= ? %s
+            ORDER BY ep.updated_at, ep.user_id, ep.course_id
+            """;
+    // Only stored rows are exported; lessons without a row are NOT_STARTED
+    private static final String LESSON_PROGRESS_SQL = """
+            SELECT lp.user_id, lp.lesson_id, l.course_id, lp.status, lp.completed_at, lp.last_accessed_at,
+                   lp.updated_at
+            FROM course_management.lesson_progress lp
+            JOIN course_management.lessons l ON l.id = lp.lesson_id
+            WHERE lp.updated_at <= ? %s
+            ORDER BY lp.updated_at, lp.user_id, lp.lesson_id
+            """;
+
+    private static final String HIGH_WATER_MARK_SQL = """
+            SELECT LEAST(
+                       clock_timestamp() - make_interval(secs => ? / 1000.0),
+                       (SELECT MIN(xact_start) - INTERVAL '1 microsecond'
+                        FROM pg_stat_activity
+                        WHERE datname = current_database()
+                          AND pid <> pg_backend_pid()
+                          AND xact_start IS NOT NULL))
+            """;
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final Duration settleTime;
+
+    public DataExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${course.export.fetch-size:1000}") int fetchSize,
+            @Value("${course.export.settle-time:5s}") Duration settleTime
+    ) {
+        // The Postgres driver only uses a cursor for a positive fetch size inside a transaction
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.settleTime = settleTime;
+    }
+
+    /**
+     * Upper bound for an export started now. Rows are stamped with updated_at before they commit,
+     * no earlier than the start of their transaction, so the mark is clamped to just before the
+     * oldest transaction still open in this database: anything at or below it is already
+     * committed and cannot appear later. The settle time additionally covers rows stamped by
+     * the application clock rather than the database's.
+     */
+    public ZonedDateTime highWaterMark() {
+        Timestamp mark = cursorJdbcTemplate.queryForObject(HIGH_WATER_MARK_SQL, Timestamp.class,
+                settleTime.toMillis());
+        return ZonedDateTime.ofInstant(mark.toInstant(), ZoneOffset.UTC);
+    }
+
+    public void exportCourses(ZonedDateTime since, ZonedDateTime until, Format format, OutputStream out) {
+        export(COURSES_SQL, "c.updated_at", null, null, since, until, format, out);
+    }
+
+    public void exportEnrollments(Long courseId, ZonedDateTime since, ZonedDateTime until, Format format,
+                                  OutputStream out) {
+        export(ENROLLMENTS_SQL, "ep.updated_at", "ep.course_id", courseId, since, until, format, out);
+    }
+
+    public void exportLessonProgress(Long courseId, ZonedDateTime since, ZonedDateTime until, Format format,
+                                     OutputStream out) {
+        export(LESSON_PROGRESS_SQL, "lp.updated_at", "l.course_id", courseId, since, until, format, out);
+    }
+
+    private void export(String sqlTemplate, String updatedAtColumn, String courseColumn, Long courseId,
+                        ZonedDateTime since, ZonedDateTime until, Format format, OutputStream out) {
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.from(until.toInstant()));
+
+        StringBuilder conditions = new StringBuilder();
+        if (since != null) {
+            conditions.append("AND ").append(updatedAtColumn).append(" > ? ");
+            args.add(Timestamp.from(since.toInstant()));
+        }
+        if (courseId != null) {
+            conditions.append("AND ").append(courseColumn).append(" = ? ");
+            args.add(courseId);
+        }
+        String sql = sqlTemplate.formatted(conditions);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ResultSetExtractor<Long> extractor = format == Format.CSV
+                ? rs -> writeCsv(rs, writer)
+                : rs -> writeNdjson(rs, writer);
+
+        Long rows = readOnlyTransaction.execute(status -> cursorJdbcTemplate.query(sql, extractor, args.toArray()));
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write export", e);
+        }
+        log.info("Exported {} rows up to {}", rows, until);
+    }
+
+    private long writeNdjson(ResultSet rs, Writer writer) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columns = metaData.getColumnCount();
+        long rows = 0;
+
+        try {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            while (rs.next()) {
+                generator.writeStartObject();
+                for (int i = 1; i <= columns; i++) {
+                    generator.writeFieldName(metaData.getColumnLabel(i));
+                    Object value = readValue(rs, i);
+                    if (value instanceof Number || value instanceof Boolean || value == null) {
+                        generator.writeObject(value);
+                    } else {
+                        generator.writeString(value.toString());
+                    }
+                }
+                generator.writeEndObject();
+                rows++;
+            }
+            if (rows > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write export", e);
+        }
+        return rows;
+    }
+
+    private long writeCsv(ResultSet rs, Writer writer) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columns = metaData.getColumnCount();
+        long rows = 0;
+
+        try {
+            for (int i = 1; i <= columns; i++) {
+                writer.write(i > 1 ? "," : "");
+                writer.write(metaData.getColumnLabel(i));
+            }
+            writer.write('\n');
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    writer.write(i > 1 ? "," : "");
+                    Object value = readValue(rs, i);
+                    if (value != null) {
+                        writer.write(csvEscape(value.toString()));
+                    }
+                }
+                writer.write('\n');
+                rows++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write export", e);
+        }
+        return rows;
+    }
+
+    private static Object readValue(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        // Render timestamps as ISO-8601 with offset rather than the driver's local representation
+        if (value instanceof Timestamp) {
+            return rs.getObject(column, OffsetDateTime.class);
+        }
+        return value;
+    }
+
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
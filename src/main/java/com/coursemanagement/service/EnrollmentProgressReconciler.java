@@ -0,0 +1,27 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.repository.EnrollmentProgressRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rebuilds the enrollment_progress counters from lesson_progress, correcting any drift
+ * left behind by failed or concurrent incremental updates.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentProgressReconciler {
+    private final EnrollmentProgressRepository enrollmentProgressRepository;
+
+    @Scheduled(cron = "${course.progress.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public int reconcile() {
+        int corrected = enrollmentProgressRepository.rebuildAll();
+        log.info("Enrollment progress reconciliation corrected {} rows", corrected);
+        return corrected;
+    }
+}
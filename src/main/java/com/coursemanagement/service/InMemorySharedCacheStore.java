@@ -0,0 +1,25 @@
+package com.coursemanagement.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Local stand-in for a shared store, for single-instance setups and tests
+public class InMemorySharedCacheStore implements SharedCacheStore {
+    private final Map<String, Object> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<Object> get(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        entries.put(key, value);
+    }
+
+    @Override
+    public void evict(String key) {
+        entries.remove(key);
+    }
+}
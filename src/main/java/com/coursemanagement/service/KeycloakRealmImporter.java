@@ -0,0 +1,104 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.config.JwtTokenExtractor;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KeycloakRealmImporter {
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
+    private final UserProvisioningQueue userProvisioningQueue;
+    private final ObjectMapper objectMapper;
+
+    @Value("${course.users.realm-export:}")
+    private String realmExport;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void importConfiguredRealmExport() {
+        if (realmExport.isBlank()) {
+            return;
+        }
+
+        try (InputStream in = Files.newInputStream(Path.of(realmExport))) {
+            int imported = importUsers(in);
+            log.info("Seeded {} users from realm export {}", imported, realmExport);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to seed users from realm export {}", realmExport, e);
+        }
+    }
+
+    public int importUsers(InputStream realmExportStream) {
+        int imported = 0;
+        List<UserProvisioningQueue.KeycloakUser> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+
+        // Realm exports can be large; stream the users array instead of binding the whole document
+        try (JsonParser parser = objectMapper.getFactory().createParser(realmExportStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Realm export must be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (!"users".equals(field) || parser.currentToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JsonNode user = objectMapper.readTree(parser);
+                    String email = user.path("email").asText(null);
+                    if (email == null || email.isBlank()) {
+                        // Service accounts have no email and never log in through /api/login
+                        continue;
+                    }
+
+                    batch.add(toKeycloakUser(user, email));
+                    if (batch.size() == IMPORT_BATCH_SIZE) {
+                        imported += userProvisioningQueue.upsertAll(batch);
+                        batch.clear();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read realm export", e);
+        }
+
+        imported += userProvisioningQueue.upsertAll(batch);
+        return imported;
+    }
+
+    private UserProvisioningQueue.KeycloakUser toKeycloakUser(JsonNode user, String email) {
+        Set<String> realmRoles = new HashSet<>();
+        user.path("realmRoles").forEach(role -> realmRoles.add(role.asText()));
+
+        return new UserProvisioningQueue.KeycloakUser(
+                user.path("id").asText(),
+                email,
+                user.path("firstName").asText("Unknown"),
+                user.path("lastName").asText(""),
+                JwtTokenExtractor.determineHighestRole(realmRoles)
+        );
+    }
+}
@@ -0,0 +1,86 @@
+package com.coursemanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class KeycloakTokenClient {
+    private final RestClient keycloakRestClient;
+    private final String clientId;
+    private final String clientSecret;
+    private final String tokenUri;
+    private final Semaphore bulkhead;
+    private final Duration maxWait;
+    private final Counter rejectedRequests;
+
+    public KeycloakTokenClient(
+            RestClient keycloakRestClient,
+            MeterRegistry meterRegistry,
+            @Value("${spring.security.oauth2.client.registration.keycloak.client-id}") String clientId,
+            @Value("${spring.security.oauth2.client.registration.keycloak.client-secret}") String clientSecret,
+            @Value("${spring.security.oauth2.client.provider.keycloak.token-uri}") String tokenUri,
+            @Value("${course.keycloak.client.max-concurrent-requests:50}") int maxConcurrentRequests,
+            @Value("${course.keycloak.client.max-wait:500ms}") Duration maxWait
+    ) {
+        this.keycloakRestClient = keycloakRestClient;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.tokenUri = tokenUri;
+        this.bulkhead = new Semaphore(maxConcurrentRequests);
+        this.maxWait = maxWait;
+        this.rejectedRequests = Counter.builder("keycloak.token.bulkhead.rejected")
+                .description("Token requests rejected because too many were already in flight")
+                .register(meterRegistry);
+        Gauge.builder("keycloak.token.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free slots for concurrent token requests")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<String> requestToken(String username, String password) {
+        if (!acquire()) {
+            rejectedRequests.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent login requests");
+        }
+
+        try {
+            MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+            form.add("grant_type", "password");
+            form.add("client_id", clientId);
+            form.add("client_secret", clientSecret);
+            form.add("username", username);
+            form.add("password", password);
+
+            return keycloakRestClient.post()
+                    .uri(tokenUri)
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .body(form)
+                    .retrieve()
+                    .toEntity(String.class);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return bulkhead.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,19 +1,21 @@
 package com.coursemanagement.service;
 
 import com.coursemanagement.dto.LessonProgressDto;
-import com.coursemanagement.entity.Course;
+import com.coursemanagement.entity.EnrollmentProgressId;
 import com.coursemanagement.entity.Lesson;
 import com.coursemanagement.entity.LessonProgress;
-import com.coursemanagement.entity.User;
 import com.coursemanagement.exception.CourseEntityNotFoundException;
 import com.coursemanagement.mapper.LessonProgressMapper;
+import com.coursemanagement.repository.EnrollmentProgressRepository;
 import com.coursemanagement.repository.LessonProgressRepository;
 import com.coursemanagement.repository.LessonRepository;
-import com.coursemanagement.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,33 +23,41 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LessonProgressService {
     private final LessonProgressRepository lessonProgressRepository;
+    private final EnrollmentProgressRepository enrollmentProgressRepository;
     private final LessonRepository lessonRepository;
-    private final UserRepository userRepository;
+    private final LessonProgressWriteBuffer lessonProgressWriteBuffer;
 
     private final LessonProgressMapper lessonProgressMapper;
 
+    @Value("${course.progress.materialize-on-enrollment:false}")
+    private boolean materializeOnEnrollment;
 
     @Transactional
-    public void initializeLessonProgressForCourse(User student, Course course) {
-        List<Lesson> courseLessons = lessonRepository.findByCourseIdOrderByOrderIndexAsc(course.getId());
-
-        List<LessonProgress> lessonProgresses = courseLessons.stream()
-                .map(lesson -> LessonProgress.builder()
-                        .userId(student.getId())
-                        .lessonId(lesson.getId())
-                        .lesson(lesson)
-                        .status(LessonProgress.ProgressStatus.NOT_STARTED)
-                        .build())
-                .collect(Collectors.toList());
+    public void initializeLessonProgressForCourse(Collection<Long> studentIds, Long courseId) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
 
-        lessonProgressRepository.saveAll(lessonProgresses);
+        // By default progress rows are created on first interaction and NOT_STARTED is derived on read
+        if (materializeOnEnrollment) {
+            lessonProgressRepository.initializeForCourse(studentIds, courseId);
+        }
+        enrollmentProgressRepository.rebuild(studentIds, courseId);
     }
 
     @Transactional
-    public LessonProgressDto updateLessonProgress(String studentEmail, Long lessonId,
+    public LessonProgressDto updateLessonProgress(Long studentId, Long lessonId,
                                                   LessonProgressDto.UpdateLessonProgressDto updateDto) {
-        User student = userRepository.findByEmail(studentEmail)
-                .orElseThrow(() -> new CourseEntityNotFoundException("Student not found"));
+        // Heartbeats on a lesson that is already in progress are coalesced and written in batches
+        if (isHeartbeat(updateDto)
+                && lessonProgressWriteBuffer.offer(studentId, lessonId, updateDto.getLastAccessedAt())) {
+            return LessonProgressDto.builder()
+                    .userId(studentId)
+                    .lessonId(lessonId)
+                    .status(LessonProgress.ProgressStatus.IN_PROGRESS)
+                    .lastAccessedAt(updateDto.getLastAccessedAt())
+                    .build();
+        }
 
         Lesson lesson = lessonRepository.findById(lessonId)
                 .orElseThrow(() -> new CourseEntityNotFoundException("Lesson not found"));
@@ -56,28 +66,23 @@ public class LessonProgressService {
             throw new IllegalStateException("Cannot update progress in an unpublished lesson");
         }
 
+        ZonedDateTime bufferedAccess = lessonProgressWriteBuffer.drain(studentId, lessonId).orElse(null);
         LessonProgress lessonProgress = lessonProgressRepository
-                .findByUserIdAndLessonId(student.getId(), lessonId)
-                .orElse(LessonProgress.builder()
-                        .userId(student.getId())
-                        .lessonId(lessonId)
-                        .lesson(lesson)
-                        .status(LessonProgress.ProgressStatus.NOT_STARTED)
-                        .build());
+                .findByUserIdAndLessonId(studentId, lessonId)
+                .orElseGet(() -> startLessonProgress(studentId, lesson));
 
+        LessonProgress.ProgressStatus previousStatus = lessonProgress.getStatus();
         lessonProgress.setStatus(updateDto.getStatus());
         lessonProgress.setCompletedAt(updateDto.getCompletedAt());
-        lessonProgress.setLastAccessedAt(updateDto.getLastAccessedAt());
+        lessonProgress.setLastAccessedAt(latest(updateDto.getLastAccessedAt(), bufferedAccess));
 
         lessonProgressRepository.save(lessonProgress);
+        recordProgressChange(studentId, lesson, previousStatus, lessonProgress);
         return lessonProgressMapper.toDto(lessonProgress);
     }
 
     @Transactional
-    public LessonProgressDto updateLessonProgressStatus(String studentEmail, Long lessonId, LessonProgress.ProgressStatus status) {
-        User student = userRepository.findByEmail(studentEmail)
-                .orElseThrow(() -> new CourseEntityNotFoundException("Student not found"));
-
+    public LessonProgressDto updateLessonProgressStatus(Long studentId, Long lessonId, LessonProgress.ProgressStatus status) {
         Lesson lesson = lessonRepository.findById(lessonId)
                 .orElseThrow(() -> new CourseEntityNotFoundException("Lesson not found"));
 
@@ -85,23 +90,66 @@ public class LessonProgressService {
             throw new IllegalStateException("Cannot update progress in an unpublished lesson");
         }
 
+        ZonedDateTime bufferedAccess = lessonProgressWriteBuffer.drain(studentId, lessonId).orElse(null);
         LessonProgress lessonProgress = lessonProgressRepository
-                .findByUserIdAndLessonId(student.getId(), lessonId)
-                .orElseThrow(() -> new CourseEntityNotFoundException("Lesson Progress Report not found"));
-
+                .findByUserIdAndLessonId(studentId, lessonId)
+                .orElseGet(() -> startLessonProgress(studentId, lesson));
 
+        LessonProgress.ProgressStatus previousStatus = lessonProgress.getStatus();
         lessonProgress.setStatus(status);
+        lessonProgress.setLastAccessedAt(latest(lessonProgress.getLastAccessedAt(), bufferedAccess));
 
         lessonProgressRepository.save(lessonProgress);
+        recordProgressChange(studentId, lesson, previousStatus, lessonProgress);
         return lessonProgressMapper.toDto(lessonProgress);
     }
 
-    public List<LessonProgressDto> getLessonProgressByCourse(String studentEmail, Long courseId) {
-        User student = userRepository.findByEmail(studentEmail)
-                .orElseThrow(() -> new CourseEntityNotFoundException("Student not found"));
-
-        return lessonProgressRepository.findByUserIdAndCourseId(student.getId(), courseId).stream()
-                .map(lessonProgressMapper::toDto)
+    public List<LessonProgressDto> getLessonProgressByCourse(Long studentId, Long courseId) {
+        return lessonProgressRepository.findCourseProgress(studentId, courseId).stream()
+                .map(view -> lessonProgressMapper.toDto(studentId, view))
                 .collect(Collectors.toList());
     }
+
+    // Progress rows are created lazily, so the first write for a lesson must prove the enrollment
+    private LessonProgress startLessonProgress(Long userId, Lesson lesson) {
+        if (!enrollmentProgressRepository.existsById(new EnrollmentProgressId(userId, lesson.getCourse().getId()))) {
+            throw new CourseEntityNotFoundException("Lesson Progress Report not found");
+        }
+
+        return lessonProgressMapper.toEntity(userId, lesson);
+    }
+
+    private void recordProgressChange(Long userId, Lesson lesson, LessonProgress.ProgressStatus previousStatus,
+                                      LessonProgress lessonProgress) {
+        LessonProgress.ProgressStatus currentStatus = lessonProgress.getStatus();
+        int completedDelta = countOf(currentStatus, LessonProgress.ProgressStatus.COMPLETED)
+                - countOf(previousStatus, LessonProgress.ProgressStatus.COMPLETED);
+        int inProgressDelta = countOf(currentStatus, LessonProgress.ProgressStatus.IN_PROGRESS)
+                - countOf(previousStatus, LessonProgress.ProgressStatus.IN_PROGRESS);
+
+        lessonProgressWriteBuffer.track(userId, lesson.getId(), lesson.getCourse().getId(), currentStatus);
+
+        if (completedDelta == 0 && inProgressDelta == 0 && lessonProgress.getLastAccessedAt() == null) {
+            return;
+        }
+
+        enrollmentProgressRepository.applyProgressChange(userId, lesson.getCourse().getId(),
+                completedDelta, inProgressDelta, lessonProgress.getLastAccessedAt());
+    }
+
+    private static boolean isHeartbeat(LessonProgressDto.UpdateLessonProgressDto updateDto) {
+        return updateDto.getStatus() == LessonProgress.ProgressStatus.IN_PROGRESS
+                && updateDto.getCompletedAt() == null
+                && updateDto.getLastAccessedAt() != null;
+    }
+
+    private static ZonedDateTime latest(ZonedDateTime first, ZonedDateTime second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        return second.isAfter(first) ? second : first;
+    }
+
+    private static int countOf(LessonProgress.ProgressStatus status, LessonProgress.ProgressStatus counted) {
+        return status == counted ? 1 : 0;
+    }
 }
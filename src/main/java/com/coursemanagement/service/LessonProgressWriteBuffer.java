@@ -0,0 +1,248 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.entity.LessonProgress;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces lesson progress heartbeats (lastAccessedAt bumps on lessons that are already
+ * IN_PROGRESS) per user and lesson, and writes them to the database in JDBC batches.
+ * Status transitions never go through this buffer; they are persisted synchronously by
+ * {@link LessonProgressService}, which drains any pending heartbeat for the same lesson first.
+ */
+@Component
+@Slf4j
+public class LessonProgressWriteBuffer {
+    private static final String UPSERT_LESSON_PROGRESS = """
+            INSERT INTO course_management.lesson_progress (user_id, lesson_id, status, last_accessed_at)
+            SELECT u.id, l.id, 'IN_PROGRESS', ?
+            FROM course_management.lessons l
+            JOIN course_management.users u ON u.id = ?
+            WHERE l.id = ?
+            ON CONFLICT (user_id, lesson_id) DO UPDATE
+            SET last_accessed_at = GREATEST(lesson_progress.last_accessed_at, EXCLUDED.last_accessed_at),
+                updated_at       = CURRENT_TIMESTAMP
+            """;
+    private static final String TOUCH_ENROLLMENT_PROGRESS = """
+            UPDATE course_management.enrollment_progress
+            SET last_accessed_at = GREATEST(last_accessed_at, ?),
+                updated_at       = CURRENT_TIMESTAMP
+            WHERE user_id = ? AND course_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxPending;
+    private final int maxAttempts;
+
+    private final Map<Key, Heartbeat> pending = new ConcurrentHashMap<>();
+    private final Map<Key, Long> inProgressLessons;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public LessonProgressWriteBuffer(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${course.progress.write-behind.enabled:true}") boolean enabled,
+            @Value("${course.progress.write-behind.max-pending:5000}") int maxPending,
+            @Value("${course.progress.write-behind.max-attempts:5}") int maxAttempts,
+            @Value("${course.progress.write-behind.tracked-lessons:100000}") int trackedLessons
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.maxAttempts = maxAttempts;
+        this.inProgressLessons = Collections.synchronizedMap(new LinkedHashMap<Key, Long>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                return size() > trackedLessons;
+            }
+        });
+    }
+
+    private record Key(Long userId, Long lessonId) {
+    }
+
+    private record Heartbeat(Long userId, Long lessonId, Long courseId, ZonedDateTime lastAccessedAt, int attempts) {
+        Heartbeat merge(Heartbeat other) {
+            Heartbeat latest = other.lastAccessedAt().isAfter(lastAccessedAt) ? other : this;
+            return latest.withAttempts(Math.max(attempts, other.attempts()));
+        }
+
+        Heartbeat withAttempts(int attempts) {
+            return new Heartbeat(userId, lessonId, courseId, lastAccessedAt, attempts);
+        }
+
+        Key key() {
+            return new Key(userId, lessonId);
+        }
+    }
+
+    /**
+     * Buffers a heartbeat if the lesson is known to be IN_PROGRESS for the user.
+     *
+     * @return false when the caller has to persist the update synchronously, including when
+     * the buffer is full; flushing only ever happens on the scheduler thread
+     */
+    public boolean offer(Long userId, Long lessonId, ZonedDateTime lastAccessedAt) {
+        if (!enabled || lastAccessedAt == null) {
+            return false;
+        }
+
+        Key key = new Key(userId, lessonId);
+        Long courseId = inProgressLessons.get(key);
+        if (courseId == null) {
+            return false;
+        }
+
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            return false;
+        }
+
+        pending.merge(key, new Heartbeat(userId, lessonId, courseId, lastAccessedAt, 0), Heartbeat::merge);
+        return true;
+    }
+
+    /**
+     * Removes and returns the buffered lastAccessedAt for a lesson, so that a synchronous
+     * write can include it and no stale heartbeat is flushed afterwards.
+     */
+    public Optional<ZonedDateTime> drain(Long userId, Long lessonId) {
+        return Optional.ofNullable(pending.remove(new Key(userId, lessonId)))
+                .map(Heartbeat::lastAccessedAt);
+    }
+
+    /**
+     * Records the persisted status of a lesson once the surrounding transaction commits;
+     * only IN_PROGRESS lessons accept buffered heartbeats.
+     */
+    public void track(Long userId, Long lessonId, Long courseId, LessonProgress.ProgressStatus status) {
+        if (!enabled) {
+            return;
+        }
+
+        Runnable update = () -> {
+            Key key = new Key(userId, lessonId);
+            if (status == LessonProgress.ProgressStatus.IN_PROGRESS) {
+                inProgressLessons.put(key, courseId);
+            } else {
+                inProgressLessons.remove(key);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${course.progress.write-behind.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        List<Heartbeat> batch = new ArrayList<>(pending.size());
+        for (Key key : pending.keySet()) {
+            Heartbeat heartbeat = pending.remove(key);
+            if (heartbeat != null) {
+                batch.add(heartbeat);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            log.debug("Flushed {} lesson progress heartbeats", batch.size());
+        } catch (NonTransientDataAccessException e) {
+            // A bad row fails the whole batch; write rows one by one so only the bad ones are lost
+            log.warn("Failed to flush {} lesson progress heartbeats, retrying row by row", batch.size(), e);
+            batch.forEach(this::writeSingle);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} lesson progress heartbeats", batch.size(), e);
+            batch.forEach(this::requeue);
+        }
+    }
+
+    private void writeSingle(Heartbeat heartbeat) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(List.of(heartbeat)));
+        } catch (NonTransientDataAccessException e) {
+            log.error("Dropping lesson progress heartbeat for user {} and lesson {}",
+                    heartbeat.userId(), heartbeat.lessonId(), e);
+            inProgressLessons.remove(heartbeat.key());
+        } catch (RuntimeException e) {
+            requeue(heartbeat);
+        }
+    }
+
+    private void requeue(Heartbeat heartbeat) {
+        int attempts = heartbeat.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.error("Dropping lesson progress heartbeat for user {} and lesson {} after {} attempts",
+                    heartbeat.userId(), heartbeat.lessonId(), attempts);
+            return;
+        }
+        pending.merge(heartbeat.key(), heartbeat.withAttempts(attempts), Heartbeat::merge);
+    }
+
+    private void write(List<Heartbeat> batch) {
+        // Lessons or users deleted since the heartbeat was buffered are skipped by the SELECT
+        jdbcTemplate.batchUpdate(UPSERT_LESSON_PROGRESS, batch, batch.size(), (ps, heartbeat) -> {
+            ps.setTimestamp(1, Timestamp.from(heartbeat.lastAccessedAt().toInstant()));
+            ps.setLong(2, heartbeat.userId());
+            ps.setLong(3, heartbeat.lessonId());
+        });
+        jdbcTemplate.batchUpdate(TOUCH_ENROLLMENT_PROGRESS, batch, batch.size(), (ps, heartbeat) -> {
+            ps.setTimestamp(1, Timestamp.from(heartbeat.lastAccessedAt().toInstant()));
+            ps.setLong(2, heartbeat.userId());
+            ps.setLong(3, heartbeat.courseId());
+        });
+    }
+}
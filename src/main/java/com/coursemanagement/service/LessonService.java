@@ -3,12 +3,17 @@ package com.coursemanagement.service;
 import com.coursemanagement.dto.LessonDto;
 import com.coursemanagement.entity.Course;
 import com.coursemanagement.entity.Lesson;
+import com.coursemanagement.entity.LessonContent;
+import com.coursemanagement.event.CourseChangedEvent;
 import com.coursemanagement.exception.CourseEntityNotFoundException;
 import com.coursemanagement.mapper.LessonMapper;
 import com.coursemanagement.repository.CourseRepository;
+import com.coursemanagement.repository.EnrollmentProgressRepository;
+import com.coursemanagement.repository.LessonContentRepository;
 import com.coursemanagement.repository.LessonProgressRepository;
 import com.coursemanagement.repository.LessonRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,8 +25,12 @@ import java.util.stream.Collectors;
 public class LessonService {
     private final CourseRepository courseRepository;
     private final LessonRepository lessonRepository;
+    private final LessonContentRepository lessonContentRepository;
     private final LessonProgressRepository lessonProgressRepository;
+    private final EnrollmentProgressRepository enrollmentProgressRepository;
     private final LessonMapper lessonMapper;
+    private final CourseContentCache courseContentCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public LessonDto createLesson(LessonDto.CreateLessonDto createLessonDto) {
@@ -35,7 +44,6 @@ public class LessonService {
         Lesson lesson = Lesson.builder()
                 .title(createLessonDto.getTitle())
                 .description(createLessonDto.getDescription())
-                .content(createLessonDto.getContent())
                 .course(course)
                 .orderIndex(maxOrderIndex + 1)
                 .durationMinutes(createLessonDto.getDurationMinutes())
@@ -43,6 +51,16 @@ public class LessonService {
                 .build();
 
         lessonRepository.save(lesson);
+        // No row for a lesson without a body, so the content endpoint answers 404 rather than an empty 200
+        if (createLessonDto.getContent() != null) {
+            lessonContentRepository.save(LessonContent.builder()
+                    .lessonId(lesson.getId())
+                    .body(createLessonDto.getContent())
+                    .build());
+        }
+        enrollmentProgressRepository.incrementTotalLessons(course.getId());
+        courseRepository.incrementLessonsVersion(course.getId());
+        eventPublisher.publishEvent(new CourseChangedEvent(course.getId(), CourseChangedEvent.Change.LESSONS));
         return lessonMapper.toDto(lesson);
     }
 
@@ -51,13 +69,25 @@ public class LessonService {
         Lesson lesson = lessonRepository.findById(lessonId)
                 .orElseThrow(() -> new CourseEntityNotFoundException("Lesson not found"));
 
-        if (updateLessonDto.getOrderIndex() != null &&
-                !updateLessonDto.getOrderIndex().equals(lesson.getOrderIndex())) {
+        boolean reordered = updateLessonDto.getOrderIndex() != null &&
+                !updateLessonDto.getOrderIndex().equals(lesson.getOrderIndex());
+        if (reordered) {
             handleLessonReordering(lesson, updateLessonDto.getOrderIndex());
         }
 
-        lessonMapper.updateEntity(lesson, updateLessonDto);
+        boolean metadataChanged = lessonMapper.updateEntity(lesson, updateLessonDto) || reordered;
         lessonRepository.save(lesson);
+        if (updateLessonDto.getContent() != null) {
+            LessonContent content = lessonContentRepository.findById(lessonId)
+                    .orElseGet(() -> LessonContent.builder().lessonId(lessonId).build());
+            content.setBody(updateLessonDto.getContent());
+            lessonContentRepository.save(content);
+        }
+        // The body has its own version and ETag; the lesson list only changes with the metadata
+        if (metadataChanged) {
+            courseRepository.incrementLessonsVersion(lesson.getCourse().getId());
+            eventPublisher.publishEvent(new CourseChangedEvent(lesson.getCourse().getId(), CourseChangedEvent.Change.LESSONS));
+        }
         return lessonMapper.toDto(lesson);
     }
 
@@ -68,6 +98,8 @@ public class LessonService {
 
         lesson.setIsPublished(true);
         lessonRepository.save(lesson);
+        courseRepository.incrementLessonsVersion(lesson.getCourse().getId());
+        eventPublisher.publishEvent(new CourseChangedEvent(lesson.getCourse().getId(), CourseChangedEvent.Change.LESSONS));
         return lessonMapper.toDto(lesson);
     }
 
@@ -77,14 +109,37 @@ public class LessonService {
                 .orElseThrow(() -> new CourseEntityNotFoundException("Lesson not found"));
 
         lessonRepository.decrementOrderIndexAfter(lesson.getOrderIndex(), lesson.getCourse().getId());
+        // Counters must be adjusted while the lesson's progress rows still exist
+        enrollmentProgressRepository.discountLesson(lesson.getId(), lesson.getCourse().getId());
 
         lessonRepository.delete(lesson);
+        courseRepository.incrementLessonsVersion(lesson.getCourse().getId());
+        eventPublisher.publishEvent(new CourseChangedEvent(lesson.getCourse().getId(), CourseChangedEvent.Change.LESSONS));
+    }
+
+    public String getLessonsVersionTag(Long courseId) {
+        return courseRepository.findVersionById(courseId)
+                .map(version -> String.valueOf(version.getLessonsVersion()))
+                .orElseThrow(() -> new CourseEntityNotFoundException("Course not found"));
+    }
+
+    public String getLessonContentVersionTag(Long lessonId) {
+        return lessonContentRepository.findVersionByLessonId(lessonId)
+                .map(String::valueOf)
+                .orElseThrow(() -> new CourseEntityNotFoundException("Lesson content not found"));
+    }
+
+    public String getLessonContent(Long lessonId) {
+        return lessonContentRepository.findById(lessonId)
+                .map(LessonContent::getBody)
+                .orElseThrow(() -> new CourseEntityNotFoundException("Lesson content not found"));
     }
 
-    public List<LessonDto> getLessonsByCourse(Long courseId) {
-        return lessonRepository.findByCourseIdOrderByOrderIndexAsc(courseId).stream()
-                .map(lessonMapper::toDto)
-                .collect(Collectors.toList());
+    public List<LessonDto> getLessonsByCourse(Long courseId, String versionTag) {
+        return courseContentCache.getLessons(courseId, versionTag, () ->
+                lessonRepository.findByCourseIdOrderByOrderIndexAsc(courseId).stream()
+                        .map(lessonMapper::toDto)
+                        .collect(Collectors.toList()));
     }
 
     private void handleLessonReordering(Lesson lesson, Integer newOrderIndex) {
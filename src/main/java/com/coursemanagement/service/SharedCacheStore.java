@@ -0,0 +1,15 @@
+package com.coursemanagement.service;
+
+import java.util.Optional;
+
+/**
+ * Second-level cache shared between application instances (e.g. Redis), consulted by
+ * {@link CourseContentCache} on an in-process miss. Implementations own serialization and expiry.
+ */
+public interface SharedCacheStore {
+    Optional<Object> get(String key);
+
+    void put(String key, Object value);
+
+    void evict(String key);
+}
@@ -0,0 +1,98 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.repository.UserRepository;
+import com.coursemanagement.repository.projection.UserIdentityView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class UserIdentityCache {
+    private final UserRepository userRepository;
+    private final Cache<String, UserIdentity> byEmail;
+    private final Cache<String, UserIdentity> byKeycloakId;
+
+    public UserIdentityCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${course.cache.user-identity.max-size:50000}") long maxSize,
+            @Value("${course.cache.user-identity.ttl:10m}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.byEmail = newCache(maxSize, ttl);
+        this.byKeycloakId = newCache(maxSize, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "userIdentity.byEmail");
+        CaffeineCacheMetrics.monitor(meterRegistry, byKeycloakId, "userIdentity.byKeycloakId");
+    }
+
+    public record UserIdentity(Long id, String keycloakId, String email, String role) {
+    }
+
+    public Optional<UserIdentity> findByEmail(String email) {
+        return load(byEmail, byKeycloakId, email, userRepository::findIdentityByEmail, UserIdentity::keycloakId);
+    }
+
+    public Optional<UserIdentity> findByKeycloakId(String keycloakId) {
+        return load(byKeycloakId, byEmail, keycloakId, userRepository::findIdentityByKeycloakId, UserIdentity::email);
+    }
+
+    public void invalidate(String keycloakId, String email) {
+        Runnable eviction = () -> {
+            if (keycloakId != null) {
+                byKeycloakId.invalidate(keycloakId);
+            }
+            if (email != null) {
+                byEmail.invalidate(email);
+            }
+        };
+
+        // Evict once the new state is visible, so a concurrent miss cannot re-cache the old row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private Optional<UserIdentity> load(Cache<String, UserIdentity> cache, Cache<String, UserIdentity> otherCache,
+                                        String key, Function<String, Optional<UserIdentityView>> loader,
+                                        Function<UserIdentity, String> otherKey) {
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(cache.get(key, k -> loader.apply(k)
+                .map(this::toIdentity)
+                .map(identity -> {
+                    otherCache.put(otherKey.apply(identity), identity);
+                    return identity;
+                })
+                .orElse(null)));
+    }
+
+    private UserIdentity toIdentity(UserIdentityView view) {
+        return new UserIdentity(view.getId(), view.getKeycloakId(), view.getEmail(), view.getRole());
+    }
+
+    private static Cache<String, UserIdentity> newCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.coursemanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects users seen at login, keyed by keycloakId so repeated logins coalesce into one
+ * pending entry, and upserts them in JDBC batches. Users are matched on keycloakId, falling
+ * back to email for rows created before their Keycloak account, the same way
+ * {@link UserService#createOrUpdateUserFromKeycloak} does. Rows that still violate a unique
+ * key are logged and dropped without holding back the rest of the batch.
+ */
+@Component
+@Slf4j
+public class UserProvisioningQueue {
+    // Re-links a row found by email to its new keycloakId, unless another row already owns that id
+    private static final String RELINK_USER = """
+            UPDATE course_management.users
+            SET keycloak_id = ?,
+                updated_at  = CURRENT_TIMESTAMP
+            WHERE email = ?
+              AND keycloak_id <> ?
+              AND NOT EXISTS (SELECT 1 FROM course_management.users u WHERE u.keycloak_id = ?)
+            """;
+    private static final String UPSERT_USER = """
+            INSERT INTO course_management.users (keycloak_id, email, first_name, last_name, role)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (keycloak_id) DO UPDATE
+            SET email      = EXCLUDED.email,
+                role       = EXCLUDED.role,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE users.email IS DISTINCT FROM EXCLUDED.email
+               OR users.role IS DISTINCT FROM EXCLUDED.role
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserIdentityCache userIdentityCache;
+    private final int maxPending;
+
+    private final Map<String, KeycloakUser> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public UserProvisioningQueue(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            UserIdentityCache userIdentityCache,
+            @Value("${course.users.provisioning.max-pending:1000}") int maxPending
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userIdentityCache = userIdentityCache;
+        this.maxPending = maxPending;
+    }
+
+    public record KeycloakUser(String keycloakId, String email, String firstName, String lastName, String role) {
+    }
+
+    /**
+     * Queues a login sync without touching the database. Returns false when the queue is full
+     * and the user is not already pending; the sync is then skipped, which is safe because
+     * {@link UserService#resolveCurrentUser} provisions missing or outdated users itself.
+     */
+    public boolean submit(KeycloakUser user) {
+        if (pending.size() >= maxPending && !pending.containsKey(user.keycloakId())) {
+            log.debug("Provisioning queue is full, skipping sync for user {}", user.keycloakId());
+            return false;
+        }
+
+        pending.put(user.keycloakId(), user);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${course.users.provisioning.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int upsertAll(Collection<KeycloakUser> users) {
+        // A multi-row ON CONFLICT DO UPDATE must not touch the same keycloakId or email twice
+        Map<String, KeycloakUser> byKeycloakId = new LinkedHashMap<>();
+        users.forEach(user -> byKeycloakId.put(user.keycloakId(), user));
+        Map<String, KeycloakUser> byEmail = new LinkedHashMap<>();
+        byKeycloakId.values().forEach(user -> byEmail.put(user.email(), user));
+        List<KeycloakUser> batch = new ArrayList<>(byEmail.values());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            batch.forEach(user -> userIdentityCache.invalidate(user.keycloakId(), user.email()));
+            return batch.size();
+        } catch (NonTransientDataAccessException e) {
+            // One conflicting row fails the whole batch; write rows one by one so only it is lost
+            log.warn("Failed to upsert {} users, retrying row by row", batch.size(), e);
+            int written = 0;
+            for (KeycloakUser user : batch) {
+                written += upsertSingle(user) ? 1 : 0;
+            }
+            return written;
+        }
+    }
+
+    private boolean upsertSingle(KeycloakUser user) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(List.of(user)));
+            userIdentityCache.invalidate(user.keycloakId(), user.email());
+            return true;
+        } catch (NonTransientDataAccessException e) {
+            log.error("Dropping user {} ({}), it conflicts with an existing user",
+                    user.keycloakId(), user.email(), e);
+            return false;
+        }
+    }
+
+    private void write(List<KeycloakUser> batch) {
+        jdbcTemplate.batchUpdate(RELINK_USER, batch, batch.size(), (ps, user) -> {
+            ps.setString(1, user.keycloakId());
+            ps.setString(2, user.email());
+            ps.setString(3, user.keycloakId());
+            ps.setString(4, user.keycloakId());
+        });
+        jdbcTemplate.batchUpdate(UPSERT_USER, batch, batch.size(), (ps, user) -> {
+            ps.setString(1, user.keycloakId());
+            ps.setString(2, user.email());
+            ps.setString(3, user.firstName());
+            ps.setString(4, user.lastName());
+            ps.setString(5, user.role());
+        });
+    }
+
+    private void writePending() {
+        List<KeycloakUser> batch = new ArrayList<>(pending.size());
+        for (String keycloakId : pending.keySet()) {
+            KeycloakUser user = pending.remove(keycloakId);
+            if (user != null) {
+                batch.add(user);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            upsertAll(batch);
+            log.debug("Provisioned {} users from Keycloak logins", batch.size());
+        } catch (RuntimeException e) {
+            // Conflicting rows are already isolated in upsertAll, so this is a transient failure
+            log.error("Failed to provision {} users, retrying on next flush", batch.size(), e);
+            batch.forEach(user -> pending.putIfAbsent(user.keycloakId(), user));
+        }
+    }
+}
@@ -1,34 +1,77 @@
 package com.coursemanagement.service;
 
+import com.coursemanagement.config.CurrentUser;
 import com.coursemanagement.config.JwtTokenExtractor;
 import com.coursemanagement.entity.User;
 import com.coursemanagement.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final UserProvisioningQueue userProvisioningQueue;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public void createOrUpdateUserFromKeycloak(JwtTokenExtractor.UserInfo userInfo) {
-        userRepository.findByEmail(userInfo.email())
+        userRepository.findByKeycloakId(userInfo.keycloakId())
+                .or(() -> userRepository.findByEmail(userInfo.email()))
                 .ifPresentOrElse(
                         user -> updateExistingUser(user, userInfo),
                         () -> createNewUser(userInfo)
                 );
     }
 
+    public void syncUserFromKeycloak(JwtTokenExtractor.UserInfo userInfo) {
+        String[] nameParts = splitFullName(userInfo.name());
+        userProvisioningQueue.submit(new UserProvisioningQueue.KeycloakUser(
+                userInfo.keycloakId(), userInfo.email(), nameParts[0], nameParts[1], userInfo.role()));
+    }
+
+    public CurrentUser resolveCurrentUser(JwtTokenExtractor.UserInfo userInfo) {
+        // Only the keycloakId identifies the caller; a row matched by email is re-linked by provisioning first
+        UserIdentityCache.UserIdentity identity = userIdentityCache.findByKeycloakId(userInfo.keycloakId())
+                .filter(user -> user.role().equals(userInfo.role()))
+                .orElseGet(() -> provisionUser(userInfo));
+
+        return new CurrentUser(identity.id(), identity.keycloakId(), identity.email(), identity.role());
+    }
+
+    private UserIdentityCache.UserIdentity provisionUser(JwtTokenExtractor.UserInfo userInfo) {
+        try {
+            // A self-invocation would bypass @Transactional, so run it in an explicit transaction
+            transactionTemplate.executeWithoutResult(status -> createOrUpdateUserFromKeycloak(userInfo));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request provisioned the same user first, or the email belongs to another account
+            log.debug("User with email {} was provisioned concurrently", userInfo.email());
+        }
+
+        return userIdentityCache.findByKeycloakId(userInfo.keycloakId())
+                .orElseThrow(() -> new SecurityException("No user is linked to this token"));
+    }
+
     private void updateExistingUser(User user, JwtTokenExtractor.UserInfo userInfo) {
-        if (!user.getRole().equals(userInfo.role())) {
-            log.info("Updating role for user with email: {}", userInfo.email());
-            user.setRole(userInfo.role());
-            userRepository.save(user);
+        if (user.getRole().equals(userInfo.role())
+                && user.getEmail().equals(userInfo.email())
+                && user.getKeycloakId().equals(userInfo.keycloakId())) {
+            return;
         }
+
+        log.info("Updating user with email: {}", userInfo.email());
+        userIdentityCache.invalidate(user.getKeycloakId(), user.getEmail());
+        user.setRole(userInfo.role());
+        user.setEmail(userInfo.email());
+        user.setKeycloakId(userInfo.keycloakId());
+        userRepository.save(user);
+        userIdentityCache.invalidate(user.getKeycloakId(), user.getEmail());
     }
 
     private void createNewUser(JwtTokenExtractor.UserInfo userInfo) {
@@ -45,6 +88,7 @@ public class UserService {
                 .build();
 
         userRepository.save(newUser);
+        userIdentityCache.invalidate(newUser.getKeycloakId(), newUser.getEmail());
     }
 
     private String[] splitFullName(String fullName) {
@@ -0,0 +1,7 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Incremental exports range-scan on updated_at in order
+CREATE INDEX idx_courses_updated_at ON courses (updated_at, id);
+CREATE INDEX idx_enrollment_progress_updated_at ON enrollment_progress (updated_at);
+CREATE INDEX idx_lesson_progress_updated_at ON lesson_progress (updated_at);
@@ -0,0 +1,48 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Per-lesson funnel for enrolled learners, refreshed on a schedule by CourseAnalyticsRefresher.
+-- Progress rows are created lazily, so learners without a row count as NOT_STARTED.
+CREATE MATERIALIZED VIEW lesson_funnel_stats AS
+SELECT l.id                                                       AS lesson_id,
+       l.course_id,
+       l.title,
+       l.order_index,
+       COALESCE(enrolled.learners, 0)                             AS enrolled_learners,
+       COUNT(p.user_id) FILTER (WHERE p.status = 'IN_PROGRESS')   AS in_progress,
+       COUNT(p.user_id) FILTER (WHERE p.status = 'COMPLETED')     AS completed,
+       -- Time from enrollment to completing this lesson
+       percentile_cont(0.5) WITHIN GROUP (ORDER BY EXTRACT(EPOCH FROM (p.completed_at - p.enrolled_at)))
+           FILTER (WHERE p.status = 'COMPLETED' AND p.completed_at IS NOT NULL) AS median_seconds_to_complete,
+       CURRENT_TIMESTAMP                                          AS refreshed_at
+FROM lessons l
+LEFT JOIN (
+    SELECT course_id, COUNT(*) AS learners
+    FROM enrollments
+    GROUP BY course_id
+) enrolled ON enrolled.course_id = l.course_id
+LEFT JOIN (
+    SELECT lp.lesson_id, lp.user_id, lp.status, lp.completed_at, e.enrolled_at
+    FROM lesson_progress lp
+    JOIN lessons pl ON pl.id = lp.lesson_id
+    JOIN enrollments e ON e.user_id = lp.user_id AND e.course_id = pl.course_id
+) p ON p.lesson_id = l.id
+GROUP BY l.id, l.course_id, l.title, l.order_index, enrolled.learners;
+
+-- REFRESH ... CONCURRENTLY needs a unique index
+CREATE UNIQUE INDEX idx_lesson_funnel_stats_lesson ON lesson_funnel_stats (lesson_id);
+CREATE INDEX idx_lesson_funnel_stats_course ON lesson_funnel_stats (course_id, order_index);
+
+-- Course-level learner activity from the enrollment_progress counters
+CREATE MATERIALIZED VIEW course_activity_stats AS
+SELECT e.course_id,
+       COUNT(*)                                                                         AS enrolled_learners,
+       COUNT(*) FILTER (WHERE ep.total_lessons > 0 AND ep.completed_lessons >= ep.total_lessons) AS completed_learners,
+       COUNT(*) FILTER (WHERE ep.last_accessed_at >= CURRENT_TIMESTAMP - INTERVAL '7 days')  AS active_last_7_days,
+       COUNT(*) FILTER (WHERE ep.last_accessed_at >= CURRENT_TIMESTAMP - INTERVAL '30 days') AS active_last_30_days,
+       CURRENT_TIMESTAMP                                                                AS refreshed_at
+FROM enrollments e
+LEFT JOIN enrollment_progress ep ON ep.user_id = e.user_id AND ep.course_id = e.course_id
+GROUP BY e.course_id;
+
+CREATE UNIQUE INDEX idx_course_activity_stats_course ON course_activity_stats (course_id);
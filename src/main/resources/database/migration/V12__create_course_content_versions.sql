@@ -0,0 +1,12 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Change counters for what a course read embeds besides the course row itself. Kept apart from
+-- courses.version so lesson and enrollment writes never lock the course row or race instructor edits.
+CREATE TABLE course_content_versions (
+    course_id           BIGINT PRIMARY KEY,
+    lessons_version     BIGINT NOT NULL DEFAULT 0,
+    enrollments_version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_course_content_versions_course FOREIGN KEY (course_id)
+        REFERENCES courses (id) ON DELETE CASCADE
+);
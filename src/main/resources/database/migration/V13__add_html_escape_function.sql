@@ -0,0 +1,17 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Search highlights are returned as HTML, so instructor-written text is escaped before ts_headline
+-- adds its <mark> tags. Uses the same entities as Spring's HtmlUtils.htmlEscape on the in-memory path.
+CREATE OR REPLACE FUNCTION html_escape(p_text TEXT) RETURNS TEXT
+    LANGUAGE sql
+    IMMUTABLE
+AS
+$$
+SELECT replace(replace(replace(replace(replace(p_text,
+                                               '&', '&amp;'),
+                                       '<', '&lt;'),
+                               '>', '&gt;'),
+                       '"', '&quot;'),
+               '''', '&#39;')
+$$;
@@ -0,0 +1,9 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- A lesson without a body has no lesson_contents row, so the content endpoint can answer 404
+DELETE FROM lesson_contents
+WHERE body IS NULL;
+
+ALTER TABLE lesson_contents
+    ALTER COLUMN body SET NOT NULL;
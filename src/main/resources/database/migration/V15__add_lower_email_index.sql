@@ -0,0 +1,5 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Cohort enrollment matches emails case-insensitively
+CREATE INDEX idx_users_email_lower ON users (lower(email));
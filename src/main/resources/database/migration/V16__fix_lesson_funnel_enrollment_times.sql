@@ -0,0 +1,49 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- V4 stamped enrollments that predate it with the migration time, so their lessons appear to be
+-- completed before the learner enrolled. Move enrolled_at back to the learner's first progress.
+UPDATE enrollments e
+SET enrolled_at = first_progress.started_at
+FROM (
+    SELECT lp.user_id, l.course_id, MIN(LEAST(lp.created_at, lp.completed_at)) AS started_at
+    FROM lesson_progress lp
+    JOIN lessons l ON l.id = lp.lesson_id
+    GROUP BY lp.user_id, l.course_id
+) first_progress
+WHERE first_progress.user_id = e.user_id
+  AND first_progress.course_id = e.course_id
+  AND first_progress.started_at < e.enrolled_at;
+
+-- Same view as V11, but completions recorded before the enrollment no longer skew the median
+DROP MATERIALIZED VIEW lesson_funnel_stats;
+
+CREATE MATERIALIZED VIEW lesson_funnel_stats AS
+SELECT l.id                                                       AS lesson_id,
+       l.course_id,
+       l.title,
+       l.order_index,
+       COALESCE(enrolled.learners, 0)                             AS enrolled_learners,
+       COUNT(p.user_id) FILTER (WHERE p.status = 'IN_PROGRESS')   AS in_progress,
+       COUNT(p.user_id) FILTER (WHERE p.status = 'COMPLETED')     AS completed,
+       -- Time from enrollment to completing this lesson
+       percentile_cont(0.5) WITHIN GROUP (ORDER BY EXTRACT(EPOCH FROM (p.completed_at - p.enrolled_at)))
+           FILTER (WHERE p.status = 'COMPLETED' AND p.completed_at >= p.enrolled_at) AS median_seconds_to_complete,
+       CURRENT_TIMESTAMP                                          AS refreshed_at
+FROM lessons l
+LEFT JOIN (
+    SELECT course_id, COUNT(*) AS learners
+    FROM enrollments
+    GROUP BY course_id
+) enrolled ON enrolled.course_id = l.course_id
+LEFT JOIN (
+    SELECT lp.lesson_id, lp.user_id, lp.status, lp.completed_at, e.enrolled_at
+    FROM lesson_progress lp
+    JOIN lessons pl ON pl.id = lp.lesson_id
+    JOIN enrollments e ON e.user_id = lp.user_id AND e.course_id = pl.course_id
+) p ON p.lesson_id = l.id
+GROUP BY l.id, l.course_id, l.title, l.order_index, enrolled.learners;
+
+-- REFRESH ... CONCURRENTLY needs a unique index
+CREATE UNIQUE INDEX idx_lesson_funnel_stats_lesson ON lesson_funnel_stats (lesson_id);
+CREATE INDEX idx_lesson_funnel_stats_course ON lesson_funnel_stats (course_id, order_index);
@@ -0,0 +1,34 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Per-enrollment progress counters, kept in step with lesson_progress by the application
+CREATE TABLE enrollment_progress
+(
+    user_id             BIGINT NOT NULL,
+    course_id           BIGINT NOT NULL,
+    total_lessons       INT    NOT NULL DEFAULT 0,
+    completed_lessons   INT    NOT NULL DEFAULT 0,
+    in_progress_lessons INT    NOT NULL DEFAULT 0,
+    last_accessed_at    TIMESTAMP WITH TIME ZONE,
+    created_at          TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at          TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, course_id),
+    CONSTRAINT fk_enrollment_progress_enrollment FOREIGN KEY (user_id, course_id)
+        REFERENCES enrollments (user_id, course_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_enrollment_progress_course ON enrollment_progress (course_id);
+
+-- Backfill counters for existing enrollments
+INSERT INTO enrollment_progress (user_id, course_id, total_lessons, completed_lessons, in_progress_lessons,
+                                 last_accessed_at)
+SELECT e.user_id,
+       e.course_id,
+       COUNT(l.id),
+       COUNT(lp.lesson_id) FILTER (WHERE lp.status = 'COMPLETED'),
+       COUNT(lp.lesson_id) FILTER (WHERE lp.status = 'IN_PROGRESS'),
+       MAX(lp.last_accessed_at)
+FROM enrollments e
+         LEFT JOIN lessons l ON l.course_id = e.course_id
+         LEFT JOIN lesson_progress lp ON lp.lesson_id = l.id AND lp.user_id = e.user_id
+GROUP BY e.user_id, e.course_id;
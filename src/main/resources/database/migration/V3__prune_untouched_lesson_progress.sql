@@ -0,0 +1,9 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Lesson progress rows are now created on first interaction; NOT_STARTED is derived from lessons
+DELETE
+FROM lesson_progress
+WHERE status = 'NOT_STARTED'
+  AND completed_at IS NULL
+  AND last_accessed_at IS NULL;
@@ -0,0 +1,9 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Enrollments are now written directly rather than through the users/courses collections
+ALTER TABLE enrollments
+    ADD COLUMN enrolled_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- The primary key leads with user_id; per-course lookups and counts need their own index
+CREATE INDEX idx_enrollments_course ON enrollments (course_id);
@@ -0,0 +1,88 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Weighted search document: title (A), description (B), category and instructor names (C).
+-- A generated column cannot read categories/users, so the column is maintained by triggers.
+ALTER TABLE courses
+    ADD COLUMN search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION build_course_search_vector(
+    p_title TEXT, p_description TEXT, p_category_id BIGINT, p_instructor_id BIGINT
+) RETURNS tsvector
+    LANGUAGE sql
+    STABLE
+AS
+$$
+SELECT setweight(to_tsvector('english', COALESCE(p_title, '')), 'A')
+           || setweight(to_tsvector('english', COALESCE(p_description, '')), 'B')
+           || setweight(to_tsvector('english', COALESCE((SELECT name
+                                                         FROM course_management.categories
+                                                         WHERE id = p_category_id), '')), 'C')
+           || setweight(to_tsvector('simple', COALESCE((SELECT CONCAT_WS(' ', first_name, last_name)
+                                                        FROM course_management.users
+                                                        WHERE id = p_instructor_id), '')), 'C')
+$$;
+
+CREATE OR REPLACE FUNCTION courses_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    NEW.search_vector := course_management.build_course_search_vector(
+            NEW.title, NEW.description, NEW.category_id, NEW.instructor_id);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER trg_courses_search_vector
+    BEFORE INSERT OR UPDATE OF title, description, category_id, instructor_id
+    ON courses
+    FOR EACH ROW
+EXECUTE FUNCTION courses_search_vector_trigger();
+
+CREATE OR REPLACE FUNCTION categories_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    UPDATE course_management.courses
+    SET search_vector = course_management.build_course_search_vector(title, description, category_id, instructor_id)
+    WHERE category_id = NEW.id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_categories_search_vector
+    AFTER UPDATE OF name
+    ON categories
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION categories_search_vector_trigger();
+
+CREATE OR REPLACE FUNCTION users_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    UPDATE course_management.courses
+    SET search_vector = course_management.build_course_search_vector(title, description, category_id, instructor_id)
+    WHERE instructor_id = NEW.id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_users_search_vector
+    AFTER UPDATE OF first_name, last_name
+    ON users
+    FOR EACH ROW
+    WHEN (OLD.first_name IS DISTINCT FROM NEW.first_name OR OLD.last_name IS DISTINCT FROM NEW.last_name)
+EXECUTE FUNCTION users_search_vector_trigger();
+
+UPDATE courses
+SET search_vector = build_course_search_vector(title, description, category_id, instructor_id);
+
+CREATE INDEX idx_courses_search_vector ON courses USING gin (search_vector);
+
+-- Superseded by idx_courses_search_vector
+DROP INDEX idx_courses_title_gin;
+DROP INDEX idx_courses_description_gin;
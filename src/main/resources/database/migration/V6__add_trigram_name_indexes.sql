@@ -0,0 +1,10 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Installed into public so the % and <% operators resolve on the application's default search_path
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+-- Back both ILIKE '%x%' and fuzzy (similarity) matching on instructor and category names
+CREATE INDEX idx_categories_name_trgm ON categories USING gin (name public.gin_trgm_ops);
+CREATE INDEX idx_users_full_name_trgm ON users
+    USING gin ((COALESCE(first_name, '') || ' ' || COALESCE(last_name, '')) public.gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- The browse page almost always filters on is_published; lead with it and keep the remaining
+-- filter columns in the index so the facet query can evaluate every predicate from the index
+CREATE INDEX idx_courses_filter ON courses (is_published, category_id, difficulty_level, duration_hours);
+
+-- Default NEWEST ordering, with id as the tie-breaker the service appends
+CREATE INDEX idx_courses_published_created ON courses (is_published, created_at DESC, id DESC);
+
+-- Replaces idx_courses_instructor for instructor-scoped filtering; the leading column still serves FK lookups
+CREATE INDEX idx_courses_instructor_published ON courses (instructor_id, is_published, created_at DESC);
+DROP INDEX idx_courses_instructor;
@@ -0,0 +1,12 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Optimistic-lock versions, also used to derive HTTP ETags for course, lesson and category reads
+ALTER TABLE courses
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE lessons
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE categories
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
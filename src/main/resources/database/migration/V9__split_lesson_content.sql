@@ -0,0 +1,20 @@
+-- Set the search path to our schema
+SET search_path TO course_management;
+
+-- Lesson bodies live apart from lesson metadata so list and course reads never load them
+CREATE TABLE lesson_contents
+(
+    lesson_id  BIGINT PRIMARY KEY,
+    body       TEXT,
+    version    BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_lesson_contents_lesson FOREIGN KEY (lesson_id)
+        REFERENCES lessons (id) ON DELETE CASCADE
+);
+
+INSERT INTO lesson_contents (lesson_id, body)
+SELECT id, content
+FROM lessons;
+
+ALTER TABLE lessons
+    DROP COLUMN content;
@@ -0,0 +1,21 @@
+package com.coursemanagement;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Boots the application against a throwaway PostgreSQL with all Flyway migrations applied.
+ * The container is shared by every test class in the JVM.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+public abstract class PostgresIntegrationTest {
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+}
@@ -0,0 +1,126 @@
+package com.coursemanagement.controller;
+
+import com.coursemanagement.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Goes through the embedded Tomcat, since gzip is applied by the connector rather than by Spring MVC.
+ * Uses the JDK client because it neither asks for nor transparently decodes compressed responses.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LessonContentControllerTest extends PostgresIntegrationTest {
+    private static final String BODY = IntStream.range(0, 200)
+            .mapToObj(i -> "Line " + i + " of the lesson body\n")
+            .collect(Collectors.joining());
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private Long lessonId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE course_management.users, course_management.categories RESTART IDENTITY CASCADE");
+
+        Long instructorId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.users (keycloak_id, email, first_name, last_name, role)
+                VALUES ('instructor', 'instructor@example.com', 'Ada', 'Lovelace', 'INSTRUCTOR')
+                RETURNING id
+                """, Long.class);
+        Long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO course_management.categories (name) VALUES ('Programming') RETURNING id", Long.class);
+        Long courseId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.courses (title, description, instructor_id, category_id, is_published)
+                VALUES ('Course', 'Description', ?, ?, true)
+                RETURNING id
+                """, Long.class, instructorId, categoryId);
+        lessonId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.lessons (course_id, title, order_index, is_published)
+                VALUES (?, 'Lesson', 1, true)
+                RETURNING id
+                """, Long.class, courseId);
+        jdbcTemplate.update("INSERT INTO course_management.lesson_contents (lesson_id, body) VALUES (?, ?)",
+                lessonId, BODY);
+    }
+
+    @Test
+    void bodyIsServedUncompressedByDefault() throws Exception {
+        HttpResponse<byte[]> response = get(HttpRequest.newBuilder(contentUri()));
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(BODY, new String(response.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void bodyIsGzippedWhenAccepted() throws Exception {
+        HttpResponse<byte[]> response = get(HttpRequest.newBuilder(contentUri())
+                .header("Accept-Encoding", "gzip"));
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(response.body().length < BODY.length());
+        assertEquals(BODY, new String(gunzip(response.body()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rangeRequestsGetPartialContent() throws Exception {
+        HttpResponse<byte[]> response = get(HttpRequest.newBuilder(contentUri())
+                .header("Range", "bytes=100-199"));
+
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        assertEquals(206, response.statusCode());
+        assertEquals("bytes 100-199/" + body.length, response.headers().firstValue("Content-Range").orElse(null));
+        assertArrayEquals(Arrays.copyOfRange(body, 100, 200), response.body());
+    }
+
+    @Test
+    void matchingETagIsNotModified() throws Exception {
+        String etag = get(HttpRequest.newBuilder(contentUri())).headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> response = get(HttpRequest.newBuilder(contentUri())
+                .header("If-None-Match", etag));
+
+        assertEquals(304, response.statusCode());
+        assertEquals(0, response.body().length);
+    }
+
+    private URI contentUri() {
+        return URI.create("http://localhost:" + port + "/api/v1/lessons/" + lessonId + "/content");
+    }
+
+    private HttpResponse<byte[]> get(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
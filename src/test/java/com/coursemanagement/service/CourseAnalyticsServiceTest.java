@@ -0,0 +1,142 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.PostgresIntegrationTest;
+import com.coursemanagement.dto.CourseAnalyticsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Refreshes the analytics rollups over a small, known funnel and checks what the endpoint reports,
+ * including learners without a lesson_progress row, who count as not started.
+ */
+class CourseAnalyticsServiceTest extends PostgresIntegrationTest {
+    private static final OffsetDateTime ENROLLED_AT = OffsetDateTime.of(2024, 3, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private CourseAnalyticsService courseAnalyticsService;
+    @Autowired
+    private CourseAnalyticsRefresher courseAnalyticsRefresher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long courseId;
+    private Long firstLessonId;
+    private Long secondLessonId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE course_management.users, course_management.categories RESTART IDENTITY CASCADE");
+
+        Long instructorId = insertUser("instructor", "INSTRUCTOR");
+        Long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO course_management.categories (name) VALUES ('Programming') RETURNING id", Long.class);
+        courseId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.courses (title, description, instructor_id, category_id, is_published)
+                VALUES ('Funnel', 'Description', ?, ?, true)
+                RETURNING id
+                """, Long.class, instructorId, categoryId);
+        firstLessonId = insertLesson(1);
+        secondLessonId = insertLesson(2);
+
+        Long finisher = enroll(insertUser("finisher", "STUDENT"));
+        Long legacy = enroll(insertUser("legacy", "STUDENT"));
+        Long starter = enroll(insertUser("starter", "STUDENT"));
+        enroll(insertUser("idle", "STUDENT"));
+
+        insertProgress(finisher, firstLessonId, "COMPLETED", ENROLLED_AT.plusHours(2));
+        insertProgress(finisher, secondLessonId, "COMPLETED", ENROLLED_AT.plusHours(6));
+        insertProgress(legacy, firstLessonId, "COMPLETED", ENROLLED_AT.plusHours(4));
+        // Completed before the recorded enrollment, as for enrollments that V4 stamped with the migration time
+        insertProgress(legacy, secondLessonId, "COMPLETED", ENROLLED_AT.minusDays(30));
+        insertProgress(starter, firstLessonId, "IN_PROGRESS", null);
+
+        jdbcTemplate.update("""
+                INSERT INTO course_management.enrollment_progress
+                    (user_id, course_id, total_lessons, completed_lessons, in_progress_lessons, last_accessed_at)
+                VALUES (?, ?, 2, 2, 0, CURRENT_TIMESTAMP)
+                """, finisher, courseId);
+
+        courseAnalyticsRefresher.refresh();
+    }
+
+    @Test
+    void funnelCountsLearnersWithoutProgressAsNotStarted() {
+        CourseAnalyticsDto analytics = courseAnalyticsService.getCourseAnalytics(courseId);
+
+        assertEquals(4, analytics.getEnrolledLearners());
+        assertEquals(1, analytics.getCompletedLearners());
+        assertEquals(1, analytics.getActiveLast7Days());
+        assertEquals(2, analytics.getLessons().size());
+
+        CourseAnalyticsDto.LessonFunnelDto first = analytics.getLessons().get(0);
+        assertEquals(firstLessonId, first.getLessonId());
+        assertEquals(1, first.getNotStarted());
+        assertEquals(1, first.getInProgress());
+        assertEquals(2, first.getCompleted());
+        assertEquals(0.5, first.getCompletionRate());
+        assertEquals(0, first.getDropOff());
+        assertEquals(180.0, first.getMedianMinutesToComplete());
+
+        CourseAnalyticsDto.LessonFunnelDto second = analytics.getLessons().get(1);
+        assertEquals(secondLessonId, second.getLessonId());
+        assertEquals(2, second.getNotStarted());
+        assertEquals(0, second.getInProgress());
+        assertEquals(2, second.getCompleted());
+        assertEquals(0, second.getDropOff());
+        // The completion recorded before its enrollment is left out of the median
+        assertEquals(360.0, second.getMedianMinutesToComplete());
+    }
+
+    @Test
+    void lessonsWithoutCompletionsHaveNoMedian() {
+        jdbcTemplate.update("DELETE FROM course_management.lesson_progress WHERE lesson_id = ?", secondLessonId);
+        courseAnalyticsRefresher.refresh();
+
+        CourseAnalyticsDto.LessonFunnelDto second = courseAnalyticsService.getCourseAnalytics(courseId)
+                .getLessons().get(1);
+
+        assertEquals(4, second.getNotStarted());
+        assertEquals(0, second.getCompleted());
+        assertEquals(1.0, second.getDropOff());
+        assertNull(second.getMedianMinutesToComplete());
+    }
+
+    private Long insertUser(String name, String role) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.users (keycloak_id, email, first_name, last_name, role)
+                VALUES (?, ?, ?, 'Test', ?)
+                RETURNING id
+                """, Long.class, name, name + "@example.com", name, role);
+    }
+
+    private Long insertLesson(int orderIndex) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.lessons (course_id, title, order_index, is_published)
+                VALUES (?, ?, ?, true)
+                RETURNING id
+                """, Long.class, courseId, "Lesson " + orderIndex, orderIndex);
+    }
+
+    private Long enroll(Long userId) {
+        jdbcTemplate.update("""
+                INSERT INTO course_management.enrollments (user_id, course_id, enrolled_at)
+                VALUES (?, ?, ?)
+                """, userId, courseId, ENROLLED_AT);
+        return userId;
+    }
+
+    private void insertProgress(Long userId, Long lessonId, String status, OffsetDateTime completedAt) {
+        jdbcTemplate.update("""
+                INSERT INTO course_management.lesson_progress (user_id, lesson_id, status, completed_at, last_accessed_at)
+                VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)
+                """, userId, lessonId, status, completedAt);
+    }
+}
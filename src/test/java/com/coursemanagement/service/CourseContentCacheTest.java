@@ -0,0 +1,175 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.dto.CourseDto;
+import com.coursemanagement.dto.LessonDto;
+import com.coursemanagement.event.CategoryChangedEvent;
+import com.coursemanagement.event.CourseChangedEvent;
+import com.coursemanagement.repository.CourseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseContentCacheTest {
+    private static final Long COURSE_ID = 1L;
+    private static final String TAG = "1.0.0.0";
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private InMemorySharedCacheStore sharedStore;
+    private CourseContentCache cache;
+
+    private final AtomicInteger courseLoads = new AtomicInteger();
+    private final AtomicInteger lessonLoads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        sharedStore = new InMemorySharedCacheStore();
+        cache = newCache(sharedStore);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CourseChangedEvent.Change.class, names = {"UPDATED", "ENROLLMENTS"})
+    void courseChangesEvictOnlyTheCourse(CourseChangedEvent.Change change) {
+        warm();
+
+        cache.onCourseChanged(new CourseChangedEvent(COURSE_ID, change));
+        warm();
+
+        assertEquals(2, courseLoads.get());
+        assertEquals(1, lessonLoads.get());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CourseChangedEvent.Change.class, names = {"LESSONS", "CREATED", "DELETED"})
+    void lessonAndLifecycleChangesEvictCourseAndLessons(CourseChangedEvent.Change change) {
+        warm();
+
+        cache.onCourseChanged(new CourseChangedEvent(COURSE_ID, change));
+        warm();
+
+        assertEquals(2, courseLoads.get());
+        assertEquals(2, lessonLoads.get());
+    }
+
+    @Test
+    void categoryChangesEvictTheCategorysCourses() {
+        when(courseRepository.findIdsByCategoryId(7L)).thenReturn(List.of(COURSE_ID));
+        warm();
+
+        cache.onCategoryChanged(new CategoryChangedEvent(7L));
+        warm();
+
+        assertEquals(2, courseLoads.get());
+        assertEquals(1, lessonLoads.get());
+    }
+
+    @Test
+    void otherInstancesReadTheSharedTier() {
+        warm();
+
+        CourseContentCache otherInstance = newCache(sharedStore);
+        otherInstance.getCourse(COURSE_ID, TAG, courseLoader());
+        otherInstance.getLessons(COURSE_ID, TAG, lessonLoader());
+
+        assertEquals(1, courseLoads.get());
+        assertEquals(1, lessonLoads.get());
+    }
+
+    @Test
+    void aNewVersionTagIsAMissInBothTiers() {
+        warm();
+        // A second instance that never saw a change event still must not serve the old entry
+        CourseContentCache otherInstance = newCache(sharedStore);
+
+        CourseDto fresh = cache.getCourse(COURSE_ID, "2.0.0.0", courseLoader());
+        CourseDto shared = otherInstance.getCourse(COURSE_ID, "2.0.0.0", courseLoader());
+
+        assertEquals(2, courseLoads.get());
+        assertSame(fresh, shared);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<CourseDto> slowLoader = () -> {
+            courseLoads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return CourseDto.builder().id(COURSE_ID).build();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<CourseDto>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.getCourse(COURSE_ID, TAG, slowLoader);
+                }));
+            }
+            start.countDown();
+            Thread.sleep(100);
+            release.countDown();
+
+            CourseDto first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<CourseDto> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, courseLoads.get());
+        assertTrue(sharedStore.get("course:" + COURSE_ID).isPresent());
+    }
+
+    private CourseContentCache newCache(SharedCacheStore store) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("sharedCacheStore", store));
+        return new CourseContentCache(courseRepository, beanFactory.getBeanProvider(SharedCacheStore.class),
+                new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+    }
+
+    private void warm() {
+        cache.getCourse(COURSE_ID, TAG, courseLoader());
+        cache.getLessons(COURSE_ID, TAG, lessonLoader());
+    }
+
+    private Supplier<CourseDto> courseLoader() {
+        return () -> {
+            courseLoads.incrementAndGet();
+            return CourseDto.builder().id(COURSE_ID).build();
+        };
+    }
+
+    private Supplier<List<LessonDto>> lessonLoader() {
+        return () -> {
+            lessonLoads.incrementAndGet();
+            return List.of(LessonDto.builder().id(10L).courseId(COURSE_ID).build());
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.PostgresIntegrationTest;
+import com.coursemanagement.dto.CourseCatalogDto;
+import com.coursemanagement.dto.CourseFilterDto;
+import com.coursemanagement.entity.Course;
+import com.coursemanagement.mapper.CourseMapper;
+import com.coursemanagement.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the GROUPING SETS facet query and the filtered page against PostgreSQL, and that the
+ * in-memory index answers every filter and sort order the same way the database does.
+ */
+class CourseFilterTest extends PostgresIntegrationTest {
+    private static final int PAGE_SIZE = 4;
+    private static final String[] CATEGORIES = {"Backend", "Data", "Design"};
+    // Per course: category index, duration (null for none) and number of enrolled students
+    private static final int[] COURSE_CATEGORIES = {0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2};
+    private static final Integer[] DURATIONS = {2, 4, 5, 10, 20, 21, 40, null, 3, 15, 25, 8};
+    private static final int[] ENROLLMENTS = {0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3};
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private CourseMapper courseMapper;
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<Long> instructorIds = new ArrayList<>();
+    private CourseSearchIndex courseSearchIndex;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE course_management.users, course_management.categories RESTART IDENTITY CASCADE");
+
+        instructorIds.clear();
+        instructorIds.add(insertUser("instructor0", "INSTRUCTOR"));
+        instructorIds.add(insertUser("instructor1", "INSTRUCTOR"));
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            studentIds.add(insertUser("student" + i, "STUDENT"));
+        }
+        categoryIds.clear();
+        for (String category : CATEGORIES) {
+            categoryIds.add(jdbcTemplate.queryForObject(
+                    "INSERT INTO course_management.categories (name) VALUES (?) RETURNING id", Long.class, category));
+        }
+
+        Course.DifficultyLevel[] levels = Course.DifficultyLevel.values();
+        for (int i = 0; i < COURSE_CATEGORIES.length; i++) {
+            // Titles and creation times are shuffled against ids so every sort order differs from insertion order
+            Long courseId = jdbcTemplate.queryForObject("""
+                    INSERT INTO course_management.courses
+                        (title, description, instructor_id, category_id, difficulty_level, duration_hours,
+                         is_published, created_at)
+                    VALUES (?, 'Description', ?, ?, ?, ?, ?, ?)
+                    RETURNING id
+                    """, Long.class, String.format("Course %02d", (i * 7) % 12), instructorIds.get(i % 2),
+                    categoryIds.get(COURSE_CATEGORIES[i]), levels[i % levels.length].name(), DURATIONS[i],
+                    i % 4 != 3, CREATED_AT.plusHours((i * 5) % 12));
+            for (int s = 0; s < ENROLLMENTS[i]; s++) {
+                jdbcTemplate.update("INSERT INTO course_management.enrollments (user_id, course_id) VALUES (?, ?)",
+                        studentIds.get(s), courseId);
+            }
+        }
+        categoryCatalog.refresh();
+
+        // The application context runs with the index disabled, so filterCourses below takes the SQL path
+        courseSearchIndex = new CourseSearchIndex(courseRepository, courseMapper, true);
+        courseSearchIndex.rebuild();
+    }
+
+    @Test
+    void facetsCountEveryMatchingCourse() {
+        CourseFilterDto.FilterPageDto page = courseService.filterCourses(CourseFilterDto.builder().build(), 0, PAGE_SIZE);
+
+        assertEquals(12, page.getTotal());
+        assertEquals(PAGE_SIZE, page.getItems().size());
+
+        CourseFilterDto.FacetsDto facets = page.getFacets();
+        assertEquals(Map.of(
+                Course.DifficultyLevel.BEGINNER, 3L,
+                Course.DifficultyLevel.INTERMEDIATE, 3L,
+                Course.DifficultyLevel.ADVANCED, 3L,
+                Course.DifficultyLevel.EXPERT, 3L), facets.getDifficultyLevels());
+        // The course without a duration is in no bucket
+        assertEquals(Map.of(
+                CourseFilterDto.DurationBucket.UNDER_5_HOURS, 3L,
+                CourseFilterDto.DurationBucket.FROM_5_TO_20_HOURS, 5L,
+                CourseFilterDto.DurationBucket.OVER_20_HOURS, 3L), facets.getDurations());
+        assertEquals(List.of("Backend", "Data", "Design"), facets.getCategories().stream()
+                .map(CourseFilterDto.CategoryFacetDto::getCategoryName)
+                .toList());
+        assertEquals(List.of(6L, 4L, 2L), facets.getCategories().stream()
+                .map(CourseFilterDto.CategoryFacetDto::getCount)
+                .toList());
+    }
+
+    @Test
+    void facetsAndPageFollowTheFilter() {
+        CourseFilterDto filter = CourseFilterDto.builder()
+                .categoryIds(List.of(categoryIds.get(0)))
+                .minDuration(5)
+                .sort(CourseFilterDto.SortKey.SHORTEST)
+                .build();
+
+        CourseFilterDto.FilterPageDto page = courseService.filterCourses(filter, 0, PAGE_SIZE);
+
+        assertEquals(4, page.getTotal());
+        assertEquals(List.of(5, 10, 20, 21), page.getItems().stream().map(CourseCatalogDto::getDurationHours).toList());
+        assertEquals(1, page.getFacets().getCategories().size());
+        assertEquals(4L, page.getFacets().getCategories().get(0).getCount());
+        assertEquals(0L, page.getFacets().getDurations().get(CourseFilterDto.DurationBucket.UNDER_5_HOURS).longValue());
+    }
+
+    @Test
+    void pagesPastTheEndKeepTheTotalAndFacets() {
+        CourseFilterDto.FilterPageDto page = courseService.filterCourses(CourseFilterDto.builder().build(), 3, PAGE_SIZE);
+
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(12, page.getTotal());
+        assertEquals(3, page.getFacets().getCategories().size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(CourseFilterDto.SortKey.class)
+    void inMemoryIndexMatchesTheDatabase(CourseFilterDto.SortKey sort) {
+        List<CourseFilterDto> filters = List.of(
+                CourseFilterDto.builder().sort(sort).build(),
+                CourseFilterDto.builder().sort(sort).categoryIds(List.of(categoryIds.get(0), categoryIds.get(2))).build(),
+                CourseFilterDto.builder().sort(sort).instructorId(instructorIds.get(1)).published(true).build(),
+                CourseFilterDto.builder().sort(sort)
+                        .difficultyLevels(Arrays.asList(Course.DifficultyLevel.BEGINNER, Course.DifficultyLevel.ADVANCED))
+                        .minDuration(4).maxDuration(25).build(),
+                CourseFilterDto.builder().sort(sort).published(false).build());
+
+        for (CourseFilterDto filter : filters) {
+            for (int page = 0; page < 3; page++) {
+                CourseFilterDto.FilterPageDto fromDatabase = courseService.filterCourses(filter, page, PAGE_SIZE);
+                CourseFilterDto.FilterPageDto fromIndex = courseSearchIndex.filter(filter, page, PAGE_SIZE);
+
+                String context = filter + ", page " + page;
+                assertEquals(fromDatabase.getTotal(), fromIndex.getTotal(), context);
+                assertEquals(ids(fromDatabase), ids(fromIndex), context);
+                assertEquals(fromDatabase.getFacets(), fromIndex.getFacets(), context);
+            }
+        }
+    }
+
+    private static List<Long> ids(CourseFilterDto.FilterPageDto page) {
+        return page.getItems().stream().map(CourseCatalogDto::getId).toList();
+    }
+
+    private Long insertUser(String name, String role) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.users (keycloak_id, email, first_name, last_name, role)
+                VALUES (?, ?, ?, 'Test', ?)
+                RETURNING id
+                """, Long.class, name, name + "@example.com", name, role);
+    }
+}
@@ -0,0 +1,124 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.PostgresIntegrationTest;
+import com.coursemanagement.dto.CourseSearchDto;
+import com.coursemanagement.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the full-text search queries against PostgreSQL: prefix matching, queries made only of
+ * stop words, HTML-escaped highlights, and the plan, which has to go through the GIN index.
+ */
+class CourseSearchQueryTest extends PostgresIntegrationTest {
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE course_management.users, course_management.categories RESTART IDENTITY CASCADE");
+
+        Long instructorId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.users (keycloak_id, email, first_name, last_name, role)
+                VALUES ('instructor', 'instructor@example.com', 'Ada', 'Lovelace', 'INSTRUCTOR')
+                RETURNING id
+                """, Long.class);
+        Long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO course_management.categories (name) VALUES ('Programming') RETURNING id", Long.class);
+
+        insertCourse("Python <script>alert(1)</script>", "Learn \"Python\" & friends from scratch",
+                instructorId, categoryId);
+        insertCourse("Data Science with Python", "Notebooks, plots and statistics", instructorId, categoryId);
+        insertCourse("Advanced Java", "Generics, streams and the memory model", instructorId, categoryId);
+        categoryCatalog.refresh();
+    }
+
+    @Test
+    void partialTermsMatchAsPrefixes() {
+        CourseSearchDto.SearchPageDto page = search("pyth", CourseSearchDto.Mode.EXACT);
+
+        assertEquals(2, page.getTotal());
+        assertTrue(page.getItems().stream().allMatch(course -> course.getTitle().contains("Python")));
+    }
+
+    @Test
+    void fuzzyModeMatchesTheSameTerms() {
+        CourseSearchDto.SearchPageDto page = search("pyth", CourseSearchDto.Mode.FUZZY);
+
+        assertEquals(2, page.getTotal());
+    }
+
+    @Test
+    void queriesOfOnlyStopWordsListAllCourses() {
+        CourseSearchDto.SearchPageDto page = search("the of", CourseSearchDto.Mode.EXACT);
+
+        assertEquals(3, page.getTotal());
+        page.getItems().forEach(course -> assertFalse(course.getTitleHighlight().contains("<mark>")));
+    }
+
+    @Test
+    void highlightsEscapeCourseText() {
+        CourseSearchDto course = search("python friends", CourseSearchDto.Mode.EXACT).getItems().get(0);
+
+        assertEquals("<mark>Python</mark> &lt;script&gt;alert(1)&lt;/script&gt;", course.getTitleHighlight());
+        String description = course.getDescriptionHighlight();
+        assertTrue(description.contains("<mark>friends</mark>"), description);
+        assertTrue(description.contains("&amp;"), description);
+        assertFalse(description.contains("\""), description);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"searchCourses", "searchCoursesFuzzy"})
+    void matchingUsesTheSearchVectorIndex(String queryMethod) throws NoSuchMethodException {
+        String sql = CourseRepository.class
+                .getMethod(queryMethod, String.class, String.class, String.class, int.class, int.class)
+                .getAnnotation(Query.class)
+                .value();
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("query", CourseService.toPrefixTsQuery("pyth"))
+                .addValue("category", null)
+                .addValue("instructor", null)
+                .addValue("limit", 20)
+                .addValue("offset", 0);
+
+        // Three rows are cheaper to scan sequentially, so take that option away from the planner
+        String plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return namedParameterJdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, parameters, String.class);
+        });
+
+        assertTrue(plan.contains("\"Index Name\": \"idx_courses_search_vector\""), plan);
+    }
+
+    private CourseSearchDto.SearchPageDto search(String query, CourseSearchDto.Mode mode) {
+        return courseService.searchCourses(query, null, null, mode, 0, 20);
+    }
+
+    private void insertCourse(String title, String description, Long instructorId, Long categoryId) {
+        jdbcTemplate.update("""
+                INSERT INTO course_management.courses
+                    (title, description, instructor_id, category_id, difficulty_level, duration_hours, is_published)
+                VALUES (?, ?, ?, ?, 'BEGINNER', 10, true)
+                """, title, description, instructorId, categoryId);
+    }
+}
@@ -0,0 +1,178 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.PostgresIntegrationTest;
+import com.coursemanagement.dto.CourseCatalogDto;
+import com.coursemanagement.dto.CourseDto;
+import com.coursemanagement.dto.CourseFilterDto;
+import com.coursemanagement.dto.CourseSearchDto;
+import com.coursemanagement.entity.Course;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements behind the course read paths, so an association that falls back to
+ * one query per course shows up as a failure rather than as a slow page.
+ */
+class CourseServiceQueryCountTest extends PostgresIntegrationTest {
+    private static final int COURSES = 25;
+    private static final int LESSONS_PER_COURSE = 3;
+    private static final int STUDENTS = 4;
+
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long instructorId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE course_management.users, course_management.categories RESTART IDENTITY CASCADE");
+
+        instructorId = insertUser("instructor", "INSTRUCTOR");
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            studentIds.add(insertUser("student" + i, "STUDENT"));
+        }
+        Long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO course_management.categories (name) VALUES ('Programming') RETURNING id", Long.class);
+
+        for (int c = 0; c < COURSES; c++) {
+            Long courseId = jdbcTemplate.queryForObject("""
+                    INSERT INTO course_management.courses
+                        (title, description, instructor_id, category_id, difficulty_level, duration_hours, is_published)
+                    VALUES (?, 'Description', ?, ?, 'BEGINNER', 10, true)
+                    RETURNING id
+                    """, Long.class, "Course " + c, instructorId, categoryId);
+            for (int l = 1; l <= LESSONS_PER_COURSE; l++) {
+                jdbcTemplate.update("""
+                        INSERT INTO course_management.lessons (course_id, title, order_index, is_published)
+                        VALUES (?, ?, ?, true)
+                        """, courseId, "Lesson " + l, l);
+            }
+            for (Long studentId : studentIds) {
+                jdbcTemplate.update("INSERT INTO course_management.enrollments (user_id, course_id) VALUES (?, ?)",
+                        studentId, courseId);
+            }
+        }
+        categoryCatalog.refresh();
+    }
+
+    @Test
+    void instructorCoursesLoadAssociationsInBatches() {
+        List<CourseDto> courses = countStatements(() -> courseService.getCoursesByInstructor(instructorId),
+                // Courses with their instructor, then one batch each for lessons and enrolled students
+                3);
+
+        assertEquals(COURSES, courses.size());
+        courses.forEach(course -> {
+            assertEquals(LESSONS_PER_COURSE, course.getLessons().size());
+            assertEquals(STUDENTS, course.getEnrolledStudents().size());
+            assertEquals("Programming", course.getCategory().getName());
+        });
+    }
+
+    @Test
+    void catalogPageIsASingleQuery() {
+        CourseCatalogDto.CatalogPageDto page = countStatements(() -> courseService.getCourseCatalog(null, 20), 1);
+
+        assertEquals(20, page.getItems().size());
+        page.getItems().forEach(course -> assertEquals(STUDENTS, course.getEnrollmentCount()));
+    }
+
+    @Test
+    void courseDetailLoadsAssociationsInBatches() {
+        Long courseId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM course_management.courses", Long.class);
+
+        // A version tag nothing was cached under makes the content cache call through to the database
+        CourseDto course = countStatements(() -> courseService.getCourse(courseId, UUID.randomUUID().toString()),
+                // The course with its instructor, then its lessons and its enrolled students
+                3);
+
+        assertEquals(LESSONS_PER_COURSE, course.getLessons().size());
+        assertEquals(STUDENTS, course.getEnrolledStudents().size());
+        assertEquals("Programming", course.getCategory().getName());
+    }
+
+    @ParameterizedTest
+    @EnumSource(CourseSearchDto.Mode.class)
+    void searchPageIsASingleQuery(CourseSearchDto.Mode mode) {
+        CourseSearchDto.SearchPageDto page = countStatements(
+                () -> courseService.searchCourses("course", null, null, mode, 0, 20), 1);
+
+        assertEquals(20, page.getItems().size());
+        assertEquals(COURSES, page.getTotal());
+        page.getItems().forEach(course -> assertEquals("Programming", course.getCategoryName()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(CourseFilterDto.SortKey.class)
+    void filterPageIsFacetsPlusOneQuery(CourseFilterDto.SortKey sort) {
+        CourseFilterDto filter = CourseFilterDto.builder()
+                .difficultyLevels(List.of(Course.DifficultyLevel.BEGINNER))
+                .sort(sort)
+                .build();
+
+        CourseFilterDto.FilterPageDto page = countStatements(() -> courseService.filterCourses(filter, 1, 20),
+                // Facets and total in one GROUPING SETS query, then the page
+                2);
+
+        assertEquals(COURSES, page.getTotal());
+        assertEquals(COURSES - 20, page.getItems().size());
+        assertEquals(COURSES, page.getFacets().getDifficultyLevels().get(Course.DifficultyLevel.BEGINNER).longValue());
+        page.getItems().forEach(course -> assertEquals(STUDENTS, course.getEnrollmentCount()));
+    }
+
+    @Test
+    void filterPagePastTheEndOnlyQueriesFacets() {
+        CourseFilterDto.FilterPageDto page = countStatements(
+                () -> courseService.filterCourses(CourseFilterDto.builder().build(), 5, 20), 1);
+
+        assertEquals(COURSES, page.getTotal());
+        assertTrue(page.getItems().isEmpty());
+    }
+
+    private <T> T countStatements(Supplier<T> read, long maxStatements) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // A transaction keeps the session open while the mapper walks lazy associations
+        T result = transactionTemplate.execute(status -> read.get());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements,
+                "Expected at most " + maxStatements + " statements but Hibernate prepared " + statements);
+        return result;
+    }
+
+    private Long insertUser(String name, String role) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.users (keycloak_id, email, first_name, last_name, role)
+                VALUES (?, ?, ?, 'Test', ?)
+                RETURNING id
+                """, Long.class, name, name + "@example.com", name, role);
+    }
+}
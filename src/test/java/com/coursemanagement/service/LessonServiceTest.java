@@ -0,0 +1,82 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.PostgresIntegrationTest;
+import com.coursemanagement.dto.LessonDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Lesson bodies and lesson metadata are versioned separately, so editing one must not
+ * invalidate the ETag or cached content of the other.
+ */
+class LessonServiceTest extends PostgresIntegrationTest {
+    @Autowired
+    private LessonService lessonService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long courseId;
+    private Long lessonId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE course_management.users, course_management.categories RESTART IDENTITY CASCADE");
+
+        Long instructorId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.users (keycloak_id, email, first_name, last_name, role)
+                VALUES ('instructor', 'instructor@example.com', 'Ada', 'Lovelace', 'INSTRUCTOR')
+                RETURNING id
+                """, Long.class);
+        Long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO course_management.categories (name) VALUES ('Programming') RETURNING id", Long.class);
+        courseId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.courses (title, description, instructor_id, category_id, is_published)
+                VALUES ('Course', 'Description', ?, ?, true)
+                RETURNING id
+                """, Long.class, instructorId, categoryId);
+        lessonId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_management.lessons (course_id, title, order_index, is_published)
+                VALUES (?, 'Lesson', 1, true)
+                RETURNING id
+                """, Long.class, courseId);
+        jdbcTemplate.update("INSERT INTO course_management.lesson_contents (lesson_id, body) VALUES (?, 'Body')",
+                lessonId);
+    }
+
+    @Test
+    void contentOnlyEditsKeepTheLessonsVersion() {
+        String lessonsVersion = lessonService.getLessonsVersionTag(courseId);
+        String contentVersion = lessonService.getLessonContentVersionTag(lessonId);
+
+        lessonService.updateLesson(lessonId, LessonDto.UpdateLessonDto.builder().content("New body").build());
+
+        assertEquals(lessonsVersion, lessonService.getLessonsVersionTag(courseId));
+        assertNotEquals(contentVersion, lessonService.getLessonContentVersionTag(lessonId));
+        assertEquals("New body", lessonService.getLessonContent(lessonId));
+    }
+
+    @Test
+    void unchangedMetadataKeepsTheLessonsVersion() {
+        String lessonsVersion = lessonService.getLessonsVersionTag(courseId);
+
+        lessonService.updateLesson(lessonId, LessonDto.UpdateLessonDto.builder().title("Lesson").orderIndex(1).build());
+
+        assertEquals(lessonsVersion, lessonService.getLessonsVersionTag(courseId));
+    }
+
+    @Test
+    void metadataEditsBumpTheLessonsVersion() {
+        String lessonsVersion = lessonService.getLessonsVersionTag(courseId);
+        String contentVersion = lessonService.getLessonContentVersionTag(lessonId);
+
+        lessonService.updateLesson(lessonId, LessonDto.UpdateLessonDto.builder().title("Renamed").build());
+
+        assertNotEquals(lessonsVersion, lessonService.getLessonsVersionTag(courseId));
+        assertEquals(contentVersion, lessonService.getLessonContentVersionTag(lessonId));
+    }
+}